@@ -0,0 +1,21 @@
+package com.game;
+
+import java.util.Arrays;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkMain {  /* JMH 실행 진입점. 항상 GC 프로파일러(-prof gc)를 붙여서 연산당 할당량(gc.alloc.rate.norm)이 함께 나오게 함. */
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers()
+                || cli.shouldListResultFormats() || Arrays.asList(args).contains("-prof")) {
+            Main.main(args);  // 목록/도움말이나 프로파일러를 직접 지정한 경우는 JMH 기본 동작 그대로.
+            return;
+        }
+        new Runner(new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "--add-modules=jdk.incubator.vector"})
+public class BulletKernelBenchmark {  /* BulletKernel의 기준 구현과 Vector API 구현 비교. vector는 JDK 17 이상에서 빌드해야 있음. 총알은 화면 안팎에 고르게 퍼뜨리고, 위치가 흘러가지 않도록 tick마다 속도 방향을 뒤집음. */
+
+    @Param({"10000", "100000"})
+    public int bullets;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    @Param({"16"})
+    public int enemies;  // markInsideAny에 넘기는 box 수
+
+    private final Rectangle bounds = Populations.BOUNDS;
+    private BulletKernel k;
+    private int[] x, y, dx, dy, backX, backY, w, h;
+    private int[] left, top, right, bottom;
+    private byte[] out;
+    private boolean back;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        k = BulletKernel.create(kernel);
+        Random random = new Random(42);
+        x = new int[bullets];
+        y = new int[bullets];
+        dx = new int[bullets];
+        dy = new int[bullets];
+        backX = new int[bullets];
+        backY = new int[bullets];
+        w = new int[bullets];
+        h = new int[bullets];
+        for (int i = 0; i < bullets; i++) {  // 화면보다 조금 넓은 범위, 일부는 화면 밖
+            x[i] = bounds.x - 50 + random.nextInt(bounds.width + 100);
+            y[i] = bounds.y - 50 + random.nextInt(bounds.height + 100);
+            dx[i] = random.nextInt(9) - 4;
+            dy[i] = random.nextInt(9) - 4;
+            backX[i] = -dx[i];
+            backY[i] = -dy[i];
+            w[i] = 10;
+            h[i] = 10;
+        }
+        left = new int[enemies];
+        top = new int[enemies];
+        right = new int[enemies];
+        bottom = new int[enemies];
+        for (int e = 0; e < enemies; e++) {  // CollisionGrid.insertHitBox와 같은 enemy 판정 범위
+            int ex = random.nextInt(bounds.width - 40), ey = random.nextInt(bounds.height - 17);
+            left[e] = ex - 3;
+            top[e] = ey + 2;
+            right[e] = ex + 40 - 4;
+            bottom[e] = ey + 17 - 2;
+        }
+        out = new byte[bullets];
+    }
+
+    @Benchmark
+    public byte moveAndCull() {  // 한 tick의 enemyBullet 처리: 이동, 화면 밖 표시, player 판정
+        back = !back;
+        k.move(x, y, back ? backX : dx, back ? backY : dy, 0, bullets);
+        k.markOutside(x, y, w, h, 0, bullets, bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height, out);
+        byte culled = out[bullets - 1];
+        k.markInside(x, y, 0, bullets, left[0], top[0], right[0], bottom[0], out);
+        return (byte) (culled + out[bullets - 1]);
+    }
+
+    @Benchmark
+    public byte enemyBoxes() {  // 총알 x enemy box 수만큼 비교
+        k.markInsideAny(x, y, 0, bullets, left, top, right, bottom, enemies, out);
+        return out[bullets - 1];
+    }
+}
@@ -0,0 +1,70 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CollisionBenchmark {  /* bullet x enemy 충돌 검사: 예전의 모든 쌍 비교 방식과 CollisionGrid 방식 비교. 판정 규칙은 같음. */
+
+    @Param({"5", "50", "500", "5000"})
+    public int enemies;
+
+    @Param({"100", "1000"})
+    public int bullets;
+
+    private final Rectangle bounds = new Rectangle(0, 0, 800, 800);
+    private final CollisionGrid grid = new CollisionGrid(32);
+    private int[] ex, ey, bx, by;
+    private int[] hits;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        ex = new int[enemies];
+        ey = new int[enemies];
+        bx = new int[bullets];
+        by = new int[bullets];
+        for (int i = 0; i < enemies; i++) {
+            ex[i] = random.nextInt(bounds.width - 40);
+            ey[i] = random.nextInt(bounds.height - 17);
+        }
+        for (int i = 0; i < bullets; i++) {
+            bx[i] = random.nextInt(bounds.width);
+            by[i] = random.nextInt(bounds.height);
+        }
+        hits = new int[enemies];
+    }
+
+    @Benchmark
+    public int pairwise() {  // 예전 update 안의 이중 반복문과 같은 방식
+        int found = 0;
+        for (int b = 0; b < bullets; b++) {
+            for (int e = 0; e < enemies; e++) {
+                if (bx[b] < ex[e] + 40 - 4 && bx[b] > ex[e] - 3 && by[b] < ey[e] + 17 - 2 && by[b] > ey[e] + 2) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int grid() {  // 매 tick 격자를 다시 만들고 총알마다 한 칸만 검사
+        grid.reset(bounds);
+        for (int e = 0; e < enemies; e++) {
+            grid.insertHitBox(ex[e], ey[e], 40, 17, CollisionGrid.LAYER_ENEMY);
+        }
+        int found = 0;
+        for (int b = 0; b < bullets; b++) {
+            found += grid.query(bx[b], by[b], CollisionGrid.LAYER_ENEMY, hits);
+        }
+        return found;
+    }
+}
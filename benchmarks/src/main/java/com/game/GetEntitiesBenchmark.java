@@ -0,0 +1,32 @@
+package com.game;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GetEntitiesBenchmark {  /* 그릴때마다 호출되는 getEntities()의 배열 복사 비용 */
+
+    @Param({"10", "100", "1000", "10000"})
+    public int population;
+
+    private MyGame.DefaultGameModel model;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = Populations.newModel();
+        model.update(Populations.BOUNDS, EnumSet.noneOf(MyGame.Direction.class));
+        new Populations(model, population).refill();
+        model.getEntities();  // view를 미리 만들어 둠
+    }
+
+    @Benchmark
+    public MyGame.Entity[] getEntities() {
+        return model.getEntities();
+    }
+}
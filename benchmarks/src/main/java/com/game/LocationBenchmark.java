@@ -0,0 +1,42 @@
+package com.game;
+
+import java.awt.Point;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LocationBenchmark {  /* AbstractEntity.getLocation()의 Point 할당과 EntityWorld 배열을 직접 읽는 경우 비교 */
+
+    private MyGame.Entity entity;
+    private EntityWorld world;
+    private int handle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        MyGame.DefaultGameModel model = Populations.newModel();
+        model.update(Populations.BOUNDS, EnumSet.noneOf(MyGame.Direction.class));
+        world = model.getWorld();
+        handle = model.spawnAt(EntityWorld.TYPE_BULLET, 100, 100);
+        for (MyGame.Entity e : model.getEntities()) {
+            if (e instanceof MyGame.Bullet) {
+                entity = e;
+            }
+        }
+    }
+
+    @Benchmark
+    public Point getLocation() {
+        return entity.getLocation();
+    }
+
+    @Benchmark
+    public int worldArrays() {
+        return world.getX(handle) + world.getY(handle);
+    }
+}
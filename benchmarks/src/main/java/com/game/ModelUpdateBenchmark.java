@@ -0,0 +1,38 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ModelUpdateBenchmark {  /* 객체 수별 DefaultGameModel.update 한 tick의 시간과 할당량. 매 tick 뒤에 줄어든 객체를 다시 채워 수를 유지. */
+
+    @Param({"10", "100", "1000", "10000"})
+    public int population;
+
+    private MyGame.DefaultGameModel model;
+    private Populations populations;
+    private final Rectangle bounds = Populations.BOUNDS;
+    private final Set<MyGame.Direction> keys = EnumSet.of(MyGame.Direction.SPACE, MyGame.Direction.LEFT);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = Populations.newModel();
+        populations = new Populations(model, population);
+        model.update(bounds, keys);  // player 생성
+        populations.refill();
+    }
+
+    @Benchmark
+    public void update() {
+        model.update(bounds, keys);
+        populations.refill();
+    }
+}
@@ -0,0 +1,54 @@
+package com.game;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {  /* 타입별 Entity.paint를 offscreen BufferedImage에 그리는 비용. paintComponent처럼 g.create()/dispose()를 포함. 배경은 객체가 아니므로 ScrollingBackgroundBenchmark에서 잼. */
+
+    @Param({"Player", "Enemy", "Bullet", "EnemyBullet", "BoomEffect"})
+    public String type;
+
+    private BufferedImage frame;
+    private Graphics2D g;
+    private MyGame.Entity entity;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        MyGame.DefaultGameModel model = Populations.newModel();
+        model.update(Populations.BOUNDS, EnumSet.noneOf(MyGame.Direction.class));  // player
+        model.spawnAt(EntityWorld.TYPE_ENEMY, 100, 100);
+        model.spawnAt(EntityWorld.TYPE_BULLET, 120, 200);
+        model.spawnAt(EntityWorld.TYPE_ENEMY_BULLET, 140, 150);
+        model.spawnAt(EntityWorld.TYPE_BOOM, 160, 160);
+        for (MyGame.Entity e : model.getEntities()) {
+            if (e.getClass().getSimpleName().equals(type)) {
+                entity = e;
+            }
+        }
+        frame = SpriteCache.createCompatibleImage(Populations.BOUNDS.width, Populations.BOUNDS.height);
+        g = frame.createGraphics();
+        entity.paint(g);
+        SpriteCache.awaitScaled();  // 크기 변환본이 준비된 상태에서 측정
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public void paint() {
+        Graphics2D g2d = (Graphics2D) g.create();
+        entity.paint(g2d);
+        g2d.dispose();
+    }
+}
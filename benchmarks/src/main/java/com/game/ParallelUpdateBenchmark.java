@@ -0,0 +1,61 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+public class ParallelUpdateBenchmark {  /* bullet 수와 쓰레드 수를 바꿔가며 이동+충돌 검사 시간을 측정. threads=1은 ForkJoinPool 없이 순차 처리. 쓰레드 수별 결과가 확장성 표가 됨. */
+
+    @Param({"10000", "100000", "1000000"})
+    public int bullets;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private MyGame.DefaultGameModel model;
+    private Populations populations;
+    private ForkJoinPool pool;
+    private final Rectangle bounds = Populations.BOUNDS;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = Populations.newModel();
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads);
+            model.setParallelism(pool, 4096);
+        } else {
+            model.setParallelism(null, 0);
+        }
+        populations = new Populations(model, 100, bullets / 2, bullets - bullets / 2);
+        model.update(bounds, 0);  // player 생성
+        populations.refill();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void movementAndCollision() {  // 나눠서 처리하는 system만
+        model.movementSystem();
+        model.collisionSystem(bounds);
+        model.commitRemovals();  // 맞은 객체는 tick 끝에 제거되므로 여기서 반영
+        populations.refill();
+    }
+
+    @Benchmark
+    public void update() {  // 순차로 남은 system과 publish까지 포함한 한 tick
+        model.update(bounds, 0);
+        populations.refill();
+    }
+}
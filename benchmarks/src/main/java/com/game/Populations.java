@@ -0,0 +1,56 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.util.Random;
+
+final class Populations {  /* 벤치마크용으로 DefaultGameModel을 정해진 객체 수로 채우고, update 후 줄어든 만큼 다시 채움. */
+
+    static final Rectangle BOUNDS = new Rectangle(0, 0, 800, 800);
+
+    private final MyGame.DefaultGameModel model;
+    private final Random random = new Random(42);
+    private final int enemies;
+    private final int bullets;
+    private final int enemyBullets;
+
+    Populations(MyGame.DefaultGameModel model, int population) {  // population의 10%는 enemy, 나머지는 bullet과 enemy bullet 반반
+        this(model, Math.max(1, population / 10), (population - Math.max(1, population / 10)) / 2,
+                population - Math.max(1, population / 10) - (population - Math.max(1, population / 10)) / 2);
+    }
+
+    Populations(MyGame.DefaultGameModel model, int enemies, int bullets, int enemyBullets) {  // 타입별 객체 수를 직접 지정
+        this.model = model;
+        this.enemies = enemies;
+        this.bullets = bullets;
+        this.enemyBullets = enemyBullets;
+        model.setEnemyLimit(enemies);
+        for (EntityPool<?> pool : model.getPools()) {
+            pool.setCap(Integer.MAX_VALUE);
+        }
+    }
+
+    static MyGame.DefaultGameModel newModel() {
+        return new MyGame(false).new DefaultGameModel();
+    }
+
+    void refill() {  // 모자란 만큼 화면 안 임의의 위치에 생성. 풀을 쓰므로 안정상태에서는 할당이 없음.
+        EntityWorld world = model.getWorld();
+        for (int i = world.getCount(EntityWorld.TYPE_ENEMY); i < enemies; i++) {
+            model.spawnAt(EntityWorld.TYPE_ENEMY, x(), y());
+        }
+        for (int i = world.getCount(EntityWorld.TYPE_BULLET); i < bullets; i++) {
+            model.spawnAt(EntityWorld.TYPE_BULLET, x(), y());
+        }
+        for (int i = world.getCount(EntityWorld.TYPE_ENEMY_BULLET); i < enemyBullets; i++) {
+            model.spawnAt(EntityWorld.TYPE_ENEMY_BULLET, x(), y());
+        }
+    }
+
+    private int x() {
+        return random.nextInt(BOUNDS.width - 40);
+    }
+
+    private int y() {
+        return random.nextInt(BOUNDS.height - 40);
+    }
+}
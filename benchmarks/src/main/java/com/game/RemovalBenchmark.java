@@ -0,0 +1,63 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RemovalBenchmark {  /* 한 tick에 killed개를 제거하고 다시 채우는 비용: 예전처럼 ArrayList.remove(Object)로 찾아서 당기는 방식과 EntityWorld의 kill/commit 비교. */
+
+    @Param({"1000", "10000", "100000"})
+    public int population;
+
+    @Param({"10", "1000"})
+    public int killed;
+
+    private final ArrayList<Object> list = new ArrayList<>();
+    private EntityWorld world;
+    private int[] victims;  // 제거할 저장소 위치들, 매번 같은 위치
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = new EntityWorld(population);
+        for (int i = 0; i < population; i++) {
+            list.add(new Object());
+            world.create(EntityWorld.TYPE_ENEMY_BULLET, i, i, 10, 10);
+        }
+        Random random = new Random(42);
+        victims = new int[Math.min(killed, population)];
+        for (int k = 0; k < victims.length; k++) {
+            victims[k] = random.nextInt(population - victims.length);  // 앞쪽 위치만 골라서 다시 채운 객체가 뽑히지 않게 함
+        }
+    }
+
+    @Benchmark
+    public int arrayList() {  // 찾는데 n, 지운 뒤 당기는데 n
+        for (int k = 0; k < victims.length; k++) {
+            Object victim = list.get(victims[k]);
+            list.remove(victim);
+            list.add(victim);
+        }
+        return list.size();
+    }
+
+    @Benchmark
+    public int world() {  // kill과 commit 모두 제거한 수에만 비례
+        EntityWorld.Store s = world.store(EntityWorld.TYPE_ENEMY_BULLET);
+        for (int k = 0; k < victims.length; k++) {
+            world.kill(s.getHandle(victims[k]));  // 같은 위치가 두번 뽑혀도 한번만 예약됨
+        }
+        int n = world.getPendingCount();
+        world.commit();
+        for (int k = 0; k < n; k++) {  // 제거한 만큼 다시 채워서 크기를 유지
+            world.create(EntityWorld.TYPE_ENEMY_BULLET, k, k, 10, 10);
+        }
+        return world.getLiveCount();
+    }
+}
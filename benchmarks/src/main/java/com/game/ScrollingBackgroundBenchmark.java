@@ -0,0 +1,67 @@
+package com.game;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ScrollingBackgroundBenchmark {  /* 배경 한 프레임을 그리는 비용: 예전처럼 400x1200 배경 객체 두장을 통째로 그리는 방식과 ScrollingBackground의 띠 그리기 비교. 화면은 게임과 같은 400x400. */
+
+    @Param({"32", "64", "128"})
+    public int stripHeight;
+
+    @Param({"1", "3"})
+    public int layers;  // 층마다 speed가 다른 시차 배경, strips에만 적용
+
+    private static final int OLD_WIDTH = 400;    // 예전 배경 객체의 크기
+    private static final int OLD_HEIGHT = 1200;
+
+    private final Rectangle view = new Rectangle(0, 0, 400, 400);
+    private SpriteCache.ScaledSprite sprite;
+    private ScrollingBackground background;
+    private BufferedImage frame;
+    private Graphics2D g;
+    private long scroll;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        ScrollingBackground.Layer[] l = new ScrollingBackground.Layer[layers];
+        for (int i = 0; i < layers; i++) {  // 먼 층일수록 느리게
+            l[i] = ScrollingBackground.layer("images/iceBG.png", (i + 1) / (double) layers);
+        }
+        background = new ScrollingBackground(stripHeight, l);
+        background.prepare(view.width);
+        sprite = SpriteCache.get("images/iceBG.png").scaled(OLD_WIDTH, OLD_HEIGHT);
+        frame = SpriteCache.createCompatibleImage(view.width, view.height);
+        g = frame.createGraphics();
+        sprite.draw(g, 0, 0);
+        SpriteCache.awaitScaled();  // 크기 변환본이 준비된 상태에서 측정
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public int twoSprites() {  // 예전 scrollSystem의 배경 두장, 화면 밖 부분도 clip까지 넘겨짐
+        scroll += MyGame.DefaultGameModel.SCROLL_SPEED;
+        int y = (int) Math.floorMod(view.height - OLD_HEIGHT + scroll, (long) OLD_HEIGHT);
+        sprite.draw(g, 0, y);
+        sprite.draw(g, 0, y - OLD_HEIGHT);
+        return 2;
+    }
+
+    @Benchmark
+    public int strips() {
+        scroll += MyGame.DefaultGameModel.SCROLL_SPEED;
+        return background.paint(g, view, scroll);
+    }
+}
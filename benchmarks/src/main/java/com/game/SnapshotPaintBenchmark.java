@@ -0,0 +1,78 @@
+package com.game;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SnapshotPaintBenchmark {  /* 한 프레임 전체를 offscreen 이미지에 그리는 비용: 예전처럼 snapshot에 담긴 칸 순서대로 객체마다 상태를 바꾸며 전부 그리는 방식과 화면 밖을 건너뛰고 묶어서 그리는 SnapshotPainter 비교. */
+
+    @Param({"5000"})
+    public int bullets;  // bullet과 enemyBullet 반반
+
+    private RenderSnapshot snapshot;
+    private MyGame.SnapshotPainter painter;
+    private SpriteCache.ScaledSprite[] sprites;  // 타입별, 칸 순서 방식용
+    private ScrollingBackground background;  // 칸 순서 방식용, 배경은 두 방식 모두 같은 띠 그리기
+    private BufferedImage frame;
+    private Graphics2D g;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        MyGame game = new MyGame(false);
+        MyGame.DefaultGameModel model = Populations.newModel();
+        Populations populations = new Populations(model, 20, bullets / 2, bullets - bullets / 2);
+        model.update(Populations.BOUNDS, 0);  // player
+        for (int i = 0; i < 20; i++) {  // 제거와 재사용을 거쳐 칸 순서에서 타입이 섞이게 함
+            populations.refill();
+            model.update(Populations.BOUNDS, 0);
+        }
+        populations.refill();
+        model.update(Populations.BOUNDS, 0);
+        snapshot = model.getSnapshot();
+
+        painter = game.new SnapshotPainter();
+        sprites = new SpriteCache.ScaledSprite[EntityWorld.TYPE_COUNT];
+        sprites[EntityWorld.TYPE_PLAYER] = SpriteCache.get("images/player.png").scaled(MyGame.Player.WIDTH, MyGame.Player.HEIGHT);
+        sprites[EntityWorld.TYPE_ENEMY] = SpriteCache.get("images/enemy_plane.png").scaled(MyGame.Enemy.WIDTH, MyGame.Enemy.HEIGHT);
+        sprites[EntityWorld.TYPE_BOOM] = SpriteCache.get("images/explosion-153710_640.png").scaled(MyGame.BoomEffect.WIDTH, MyGame.BoomEffect.HEIGHT);
+        background = new ScrollingBackground(ScrollingBackground.layer("images/iceBG.png", 1));
+        background.prepare(Populations.BOUNDS.width);
+        frame = SpriteCache.createCompatibleImage(Populations.BOUNDS.width, Populations.BOUNDS.height);
+        g = frame.createGraphics();
+        painter.paint(g, snapshot, Populations.BOUNDS);
+        SpriteCache.awaitScaled();  // 크기 변환본이 준비된 상태에서 측정
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public int slotOrder() {  // 예전 SnapshotPainter.paint와 같은 방식
+        int blits = background.paint(g, Populations.BOUNDS, snapshot.getScroll());
+        for (int i = 0; i < snapshot.getCount(); i++) {
+            int type = snapshot.getType(i);
+            if (type == EntityWorld.TYPE_BULLET || type == EntityWorld.TYPE_ENEMY_BULLET) {
+                g.setColor(type == EntityWorld.TYPE_BULLET ? Color.RED : Color.blue);
+                g.fillRect(snapshot.getX(i), snapshot.getY(i), snapshot.getWidth(i), snapshot.getHeight(i));
+            } else {
+                sprites[type].draw(g, snapshot.getX(i), snapshot.getY(i));
+            }
+        }
+        return blits + snapshot.getCount();
+    }
+
+    @Benchmark
+    public int batched() {
+        return painter.paint(g, snapshot, Populations.BOUNDS);  // 화면 밖은 건너뜀
+    }
+}
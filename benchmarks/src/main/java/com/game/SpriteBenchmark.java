@@ -0,0 +1,74 @@
+package com.game;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpriteBenchmark {  /* 폭발효과 여러개를 그린 한 프레임의 시간: 640px 원본을 매번 40x40으로 줄여 그리는 경우와 미리 크기를 맞춰둔 이미지를 1:1로 그리는 경우 비교. 화면은 게임과 같은 400x400. */
+
+    @Param({"100", "150"})
+    public int count;  // 화면에 있는 폭발효과 개수
+
+    private static final String EXPLOSION = "images/explosion-153710_640.png";
+
+    private int[] xs;
+    private int[] ys;
+    private BufferedImage source;
+    private SpriteCache.ScaledSprite scaled;
+    private BufferedImage frame;
+    private Graphics2D g;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        xs = new int[count];
+        ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextInt(360);
+            ys[i] = random.nextInt(360);
+        }
+        SpriteCache.Sprite sprite = SpriteCache.get(EXPLOSION);
+        source = sprite.getImage();
+        scaled = sprite.scaled(40, 40);
+        scaled.build();  // 측정 전에 변환본을 준비
+        frame = SpriteCache.createCompatibleImage(400, 400);
+        g = frame.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public int scaledDraw() {  // 기존 방식: 그릴때마다 원본을 40x40으로 줄임
+        clear();
+        for (int i = 0; i < xs.length; i++) {
+            g.drawImage(source, xs[i], ys[i], 40, 40, null);
+        }
+        return xs.length;
+    }
+
+    @Benchmark
+    public int preScaled() {
+        clear();
+        for (int i = 0; i < xs.length; i++) {
+            scaled.draw(g, xs[i], ys[i]);
+        }
+        return xs.length;
+    }
+
+    private void clear() {
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+    }
+}
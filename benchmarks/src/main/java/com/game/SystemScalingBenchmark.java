@@ -0,0 +1,58 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SystemScalingBenchmark {  /* system별 한 tick의 시간. enemy 수와 bullet 수를 따로 바꿔서 각 system이 자기 타입의 수에만 비례하는지 확인. */
+
+    @Param({"10", "1000"})
+    public int enemies;
+
+    @Param({"0", "10000"})
+    public int bullets;
+
+    private MyGame.DefaultGameModel model;
+    private Populations populations;
+    private final Rectangle bounds = Populations.BOUNDS;
+    private final Set<MyGame.Direction> keys = EnumSet.noneOf(MyGame.Direction.class);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = Populations.newModel();
+        populations = new Populations(model, enemies, bullets / 2, bullets - bullets / 2);
+        model.update(bounds, keys);  // player 생성
+        populations.refill();
+    }
+
+    @Benchmark
+    public void update() {
+        model.update(bounds, keys);
+        populations.refill();
+    }
+
+    @Benchmark
+    public void enemySteering() {  // enemy 수에만 비례해야 함
+        model.enemySteeringSystem(bounds);
+    }
+
+    @Benchmark
+    public void movement() {  // bullet 수에만 비례해야 함
+        model.movementSystem();
+    }
+
+    @Benchmark
+    public void collision() {  // 격자 만들기는 enemy 수, 검색은 bullet 수에 비례
+        model.collisionSystem(bounds);
+        model.commitRemovals();  // 맞은 객체는 tick 끝에 제거되므로 여기서 반영
+        populations.refill();
+    }
+}
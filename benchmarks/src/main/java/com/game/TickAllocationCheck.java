@@ -0,0 +1,63 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+import java.util.Set;
+
+public class TickAllocationCheck {  /* DefaultGameModel.update가 안정상태에서 tick마다 힙 할당을 하지 않는지 ThreadMXBean으로 확인. 여러 구간을 재서 모든 구간에서 할당이 있으면 종료코드 1. seed가 고정이라 매번 같은 tick을 잼.
+ * java -cp benchmarks/target/benchmarks.jar com.game.TickAllocationCheck [warmup] [ticks] [seed] */
+
+    private static final Set<MyGame.Direction> LEFT = EnumSet.of(MyGame.Direction.SPACE, MyGame.Direction.LEFT, MyGame.Direction.UP);
+    private static final Set<MyGame.Direction> RIGHT = EnumSet.of(MyGame.Direction.SPACE, MyGame.Direction.RIGHT, MyGame.Direction.DOWN);
+    private static final int WINDOWS = 5;  // 측정 구간 수, 모든 구간에서 할당이 있어야 실패
+
+    public static void main(String[] args) {
+        int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 5000;  // JIT 컴파일, 첫 충돌/발사 경로 실행, 배열 확장이 끝날때까지 돌리는 tick 수
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 1000;    // 구간마다 측정하는 tick 수
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        MyGame.DefaultGameModel model = new MyGame(false).new DefaultGameModel(seed, GameClock.ticks(MyGame.DefaultGameModel.TICK_MILLIS));
+        model.setEnemyLimit(20);
+        Rectangle bounds = new Rectangle(0, 0, 400, 400);
+        model.update(bounds, LEFT);  // 첫 tick에 player가 생김
+        model.getPlayer().setLife(Integer.MAX_VALUE / 2);  // Scenario의 lives처럼 목숨을 늘려서 끝까지 죽지 않고 발사, 피격, 폭발 경로를 계속 지나가게 함
+        run(model, bounds, warmup);
+
+        long overhead = Long.MAX_VALUE;  // 측정 호출 자체의 할당량, 측정 구간과 같은 순서로 호출해서 잼
+        for (int w = 0; w < WINDOWS; w++) {
+            long before = threads.getThreadAllocatedBytes(tid);
+            run(model, bounds, 0);
+            overhead = Math.min(overhead, threads.getThreadAllocatedBytes(tid) - before);
+        }
+
+        long allocated = Long.MAX_VALUE;  // 구간별 할당량의 최소값. JIT나 TLAB 때문에 한 구간에서만 생긴 할당으로는 실패하지 않음.
+        for (int w = 0; w < WINDOWS; w++) {
+            long before = threads.getThreadAllocatedBytes(tid);
+            run(model, bounds, ticks);
+            long bytes = threads.getThreadAllocatedBytes(tid) - before - overhead;
+            System.out.printf("window %d: %d ticks, %d bytes allocated (%.2f bytes/tick)%n", w, ticks, bytes, (double) bytes / ticks);
+            allocated = Math.min(allocated, bytes);
+        }
+
+        EntityWorld world = model.getWorld();
+        System.out.printf("%d live entities (enemy %d, bullet %d, enemy bullet %d, boom %d), player life %d, min %d bytes allocated per %d ticks%n",
+                world.getLiveCount(), world.getCount(EntityWorld.TYPE_ENEMY), world.getCount(EntityWorld.TYPE_BULLET),
+                world.getCount(EntityWorld.TYPE_ENEMY_BULLET), world.getCount(EntityWorld.TYPE_BOOM), model.getPlayer().getLife(), allocated, ticks);
+        for (EntityPool<?> pool : model.getPools()) {
+            System.out.println(pool);
+        }
+        if (allocated > 0) {  // 모든 구간에서 할당이 있었음
+            System.exit(1);
+        }
+    }
+
+    private static void run(MyGame.DefaultGameModel model, Rectangle bounds, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            model.update(bounds, (i / 40) % 2 == 0 ? LEFT : RIGHT);  // 40 tick마다 좌우를 바꿔가며 계속 발사
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TimerBenchmark {  /* 한 tick의 쿨타임 처리: 예전처럼 모든 객체의 시간을 비교하는 방식과 TimingWheel 비교. 각자 300ms ~ maxInterval 간격으로 울리고 tick은 40ms. */
+
+    private static final long TICK = 40;
+
+    @Param({"100", "10000", "100000"})
+    public int timers;
+
+    @Param({"3000", "60000"})
+    public int maxInterval;  // 길수록 한 tick에 울리는 타이머가 적음
+
+    private long[] last;      // 객체별 마지막으로 울린 시간
+    private long[] interval;  // 객체별 간격
+    private long pollNow;
+    private TimingWheel wheel;
+    private long wheelNow;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        last = new long[timers];
+        interval = new long[timers];
+        wheel = new TimingWheel(TICK);
+        wheel.advance(0);
+        for (int i = 0; i < timers; i++) {
+            interval[i] = 300 + random.nextInt(maxInterval - 300);
+            last[i] = -random.nextInt((int) interval[i]);  // 울리는 시각을 고르게 퍼뜨림
+            wheel.schedule(i, last[i] + interval[i] + 1);
+        }
+    }
+
+    @Benchmark
+    public int polling() {  // 살아있는 객체 수에 비례
+        pollNow += TICK;
+        int fired = 0;
+        for (int i = 0; i < timers; i++) {
+            if (pollNow - last[i] > interval[i]) {
+                last[i] = pollNow;
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    @Benchmark
+    public int wheel() {  // 이번 tick에 울리는 수에 비례
+        wheelNow += TICK;
+        wheel.advance(wheelNow);
+        int fired = 0;
+        for (int k = 0; k < wheel.getDueCount(); k++) {
+            int id = wheel.getDue(k);
+            if (wheel.isDue(id)) {
+                wheel.schedule(id, wheelNow + interval[id] + 1);
+                fired++;
+            }
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,160 @@
+package com.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+public final class JfrEvents implements GameEvents.Sink {  /* Flight Recorder 이벤트 정의. jdk.jfr이 필요해서 jfr/ 폴더에 따로 두고 JDK 11 이상에서 빌드함. GameEvents가 이름으로 찾아 로드하므로 직접 쓰지 않음. */
+
+    // 이벤트가 켜져 있는지 확인하는 용도로만 쓰는 객체. 녹화중이 아니면 이벤트 객체를 만들지 않음.
+    private static final GameTick TICK = new GameTick();
+    private static final FrameRender FRAME = new FrameRender();
+    private static final EntitySpawn SPAWN = new EntitySpawn();
+    private static final CollisionResolved COLLISION = new CollisionResolved();
+    private static final GameOver GAME_OVER = new GameOver();
+
+    public JfrEvents() {  // GameEvents가 Class.forName으로 생성
+    }
+
+    @Override
+    public Object beginTick() {
+        if (!TICK.isEnabled()) {
+            return null;
+        }
+        GameTick event = new GameTick();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endTick(Object started, long tick, EntityWorld world) {
+        GameTick event = (GameTick) started;
+        event.end();
+        if (event.shouldCommit()) {  // threshold보다 짧으면 기록하지 않음
+            event.tick = tick;
+            event.live = world.getLiveCount();
+            event.enemies = world.getCount(EntityWorld.TYPE_ENEMY);
+            event.bullets = world.getCount(EntityWorld.TYPE_BULLET);
+            event.enemyBullets = world.getCount(EntityWorld.TYPE_ENEMY_BULLET);
+            event.booms = world.getCount(EntityWorld.TYPE_BOOM);
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginFrame() {
+        if (!FRAME.isEnabled()) {
+            return null;
+        }
+        FrameRender event = new FrameRender();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endFrame(Object started, long tick, int drawCalls, int culled) {
+        FrameRender event = (FrameRender) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = tick;
+            event.drawCalls = drawCalls;
+            event.culled = culled;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void spawn(int type, int x, int y) {
+        if (SPAWN.isEnabled()) {
+            EntitySpawn event = new EntitySpawn();
+            event.type = type;
+            event.x = x;
+            event.y = y;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void collision(int bulletType, int target, int x, int y) {
+        if (COLLISION.isEnabled()) {
+            CollisionResolved event = new CollisionResolved();
+            event.bulletType = bulletType;
+            event.targetType = target;
+            event.x = x;
+            event.y = y;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void gameOver(long tick) {
+        if (GAME_OVER.isEnabled()) {
+            GameOver event = new GameOver();
+            event.tick = tick;
+            event.commit();
+        }
+    }
+
+    @Name("com.game.GameTick")
+    @Label("Game Tick")
+    @Description("DefaultGameModel.update 한번")
+    @Category({"Game", "Simulation"})
+    @StackTrace(false)
+    @Threshold("0 ms")
+    static class GameTick extends Event {
+        @Label("Tick") long tick;
+        @Label("Live Entities") int live;
+        @Label("Enemies") int enemies;
+        @Label("Bullets") int bullets;
+        @Label("Enemy Bullets") int enemyBullets;
+        @Label("Explosions") int booms;
+    }
+
+    @Name("com.game.FrameRender")
+    @Label("Frame Render")
+    @Description("View가 snapshot 하나를 그리는 시간")
+    @Category({"Game", "Rendering"})
+    @StackTrace(false)
+    @Threshold("0 ms")
+    static class FrameRender extends Event {
+        @Label("Tick") long tick;  // 그린 snapshot이 몇번째 update의 결과인지
+        @Label("Draw Calls") int drawCalls;  // 그린 객체 수
+        @Label("Culled") int culled;  // 화면 밖이라 건너뛴 객체 수
+    }
+
+    @Name("com.game.EntitySpawn")
+    @Label("Entity Spawn")
+    @Category({"Game", "Simulation"})
+    @StackTrace(false)
+    @Enabled(false)  // 총알마다 생기므로 기본은 꺼둠
+    static class EntitySpawn extends Event {
+        @Label("Type") int type;  // EntityWorld.TYPE_*
+        @Label("X") int x;
+        @Label("Y") int y;
+    }
+
+    @Name("com.game.CollisionResolved")
+    @Label("Collision Resolved")
+    @Category({"Game", "Simulation"})
+    @StackTrace(false)
+    @Enabled(false)
+    static class CollisionResolved extends Event {
+        @Label("Bullet Type") int bulletType;  // EntityWorld.TYPE_BULLET 또는 TYPE_ENEMY_BULLET
+        @Label("Target Type") int targetType;  // EntityWorld.TYPE_ENEMY 또는 TYPE_PLAYER
+        @Label("X") int x;
+        @Label("Y") int y;
+    }
+
+    @Name("com.game.GameOver")
+    @Label("Game Over")
+    @Category({"Game"})
+    @StackTrace(false)
+    static class GameOver extends Event {
+        @Label("Tick") long tick;
+    }
+}
@@ -0,0 +1,73 @@
+package com.game;
+
+public class BulletKernel {  /* 총알 저장소의 기본형 배열을 통째로 처리하는 연산들. 이 클래스는 한 칸씩 처리하는 기준 구현이고, JDK 16 이상에서는 같은 결과를 SIMD로 내는 VectorBulletKernel(vector/ 폴더)을 쓸 수 있음. */
+
+    /* 판정 규칙은 기존 코드 그대로
+     *   화면 밖: y > bottom || y + h < top || x > right || x + w < left
+     *   box 안: left < x < right && top < y < bottom (경계 제외, CollisionGrid.query와 같음)
+     * 결과는 저장소 위치별 byte 배열에 0/1로 씀. 구간 [from, to)만 다루므로 run으로 나눠 병렬 처리해도 됨.
+     */
+
+    public static final String VECTOR_CLASS = "com.game.VectorBulletKernel";
+
+    public static BulletKernel create(String kind) {  /* "scalar" 또는 "vector". vector 구현을 쓸 수 없으면(JDK 16 미만, --add-modules jdk.incubator.vector 없음, 클래스를 빌드하지 않음) IllegalStateException. */
+        if (kind.equals("scalar")) {
+            return new BulletKernel();
+        }
+        if (!kind.equals("vector")) {
+            throw new IllegalArgumentException("unknown bullet kernel " + kind);
+        }
+        try {
+            return (BulletKernel) Class.forName(VECTOR_CLASS).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("vector bullet kernel is not available on Java " + System.getProperty("java.version") + ": " + e, e);
+        }
+    }
+
+    public static BulletKernel fromProperty() {  // -Dgame.kernel=vector 이면 vector 구현, 쓸 수 없으면 알리고 기본 구현
+        String kind = System.getProperty("game.kernel", "scalar");
+        try {
+            return create(kind);
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage() + ", using the scalar kernel");
+            return new BulletKernel();
+        }
+    }
+
+    public String getName() { return "scalar"; }
+
+    public void move(int[] x, int[] y, int[] dx, int[] dy, int from, int to) {  // 속도만큼 이동
+        for (int i = from; i < to; i++) {
+            x[i] += dx[i];
+            y[i] += dy[i];
+        }
+    }
+
+    public void markOutside(int[] x, int[] y, int[] w, int[] h, int from, int to,
+                            int left, int top, int right, int bottom, byte[] out) {  // 화면을 완전히 벗어났으면 1. 확인하지 않을 방향은 Integer.MIN_VALUE/MAX_VALUE.
+        for (int i = from; i < to; i++) {
+            out[i] = (byte) (y[i] > bottom || y[i] + h[i] < top || x[i] > right || x[i] + w[i] < left ? 1 : 0);
+        }
+    }
+
+    public void markInside(int[] x, int[] y, int from, int to, int left, int top, int right, int bottom, byte[] out) {  // box 하나(player) 안이면 1, 아니면 0
+        for (int i = from; i < to; i++) {
+            out[i] = (byte) (x[i] > left && x[i] < right && y[i] > top && y[i] < bottom ? 1 : 0);
+        }
+    }
+
+    public void markInsideAny(int[] x, int[] y, int from, int to, int[] left, int[] top, int[] right, int[] bottom,
+                              int boxes, byte[] out) {  /* box 여러개(enemy들) 중 하나라도 안이면 1. 총알 수 x box 수만큼 비교하므로 box가 적을때용이고, 많으면 CollisionGrid가 나음. */
+        for (int i = from; i < to; i++) {
+            int px = x[i], py = y[i];
+            byte hit = 0;
+            for (int b = 0; b < boxes; b++) {
+                if (px > left[b] && px < right[b] && py > top[b] && py < bottom[b]) {
+                    hit = 1;
+                    break;
+                }
+            }
+            out[i] = hit;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+public class CollisionGrid {  /* 화면 영역을 일정한 크기의 칸으로 나눠서, 총알이 들어있는 칸에 걸친 대상들만 검사하는 충돌 검사용 격자 */
+
+    public static final int LAYER_ENEMY = 1;  // Bullet이 맞는 대상. EnemyBullet과 player는 격자 없이 BulletKernel.markInside로 검사함.
+
+    private final int cellSize;  // 한 칸의 크기(px)
+    private int originX;  // 격자의 왼쪽 위 좌표
+    private int originY;
+    private int cols;
+    private int rows;
+    private int[] cellHead = new int[0];  // 칸마다 첫번째 항목의 인덱스, 없으면 -1
+
+    private int[] entryBox = new int[64];   // 칸에 들어간 항목이 가리키는 box 번호
+    private int[] entryNext = new int[64];  // 같은 칸의 다음 항목, 없으면 -1
+    private int entryCount;
+
+    private int[] left = new int[16];   // box의 판정 범위. 판정은 경계를 포함하지 않음.
+    private int[] top = new int[16];
+    private int[] right = new int[16];
+    private int[] bottom = new int[16];
+    private int[] layer = new int[16];
+    private int boxCount;
+
+    public CollisionGrid(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void reset(Rectangle bounds) {  // 매 tick 시작할때 화면 크기에 맞춰 비움.
+        originX = bounds.x;
+        originY = bounds.y;
+        cols = Math.max(1, (bounds.width + cellSize - 1) / cellSize);
+        rows = Math.max(1, (bounds.height + cellSize - 1) / cellSize);
+        if (cellHead.length < cols * rows) {
+            cellHead = new int[cols * rows];
+        }
+        Arrays.fill(cellHead, 0, cols * rows, -1);
+        entryCount = 0;
+        boxCount = 0;
+    }
+
+    public int insertHitBox(int x, int y, int width, int height, int mask) {  // 기존 판정 규칙 그대로: x-3 < px < x+w-4, y+2 < py < y+h-2
+        return insert(x - 3, y + 2, x + width - 4, y + height - 2, mask);
+    }
+
+    public int insert(int l, int t, int r, int b, int mask) {  // box를 등록하고 번호를 반환. 번호는 등록 순서대로 0부터.
+        if (boxCount == left.length) {
+            int n = boxCount * 2;
+            left = Arrays.copyOf(left, n);
+            top = Arrays.copyOf(top, n);
+            right = Arrays.copyOf(right, n);
+            bottom = Arrays.copyOf(bottom, n);
+            layer = Arrays.copyOf(layer, n);
+        }
+        int box = boxCount++;
+        left[box] = l;
+        top[box] = t;
+        right[box] = r;
+        bottom[box] = b;
+        layer[box] = mask;
+        if (r - l < 2 || b - t < 2) {  // 내부에 정수 좌표가 없으면 맞을 수 없음.
+            return box;
+        }
+
+        int c0 = cellX(l + 1);
+        int c1 = cellX(r - 1);
+        int r0 = cellY(t + 1);
+        int r1 = cellY(b - 1);
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                if (entryCount == entryBox.length) {
+                    entryBox = Arrays.copyOf(entryBox, entryCount * 2);
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                }
+                int cell = row * cols + col;
+                entryBox[entryCount] = box;
+                entryNext[entryCount] = cellHead[cell];
+                cellHead[cell] = entryCount++;
+            }
+        }
+        return box;
+    }
+
+    public int query(int x, int y, int mask, int[] out) {  // 점 (x, y)를 포함하는 box 번호들을 out에 담고 개수를 반환.
+        int found = 0;
+        for (int e = cellHead[cellY(y) * cols + cellX(x)]; e != -1; e = entryNext[e]) {
+            int box = entryBox[e];
+            if ((layer[box] & mask) != 0 && x > left[box] && x < right[box] && y > top[box] && y < bottom[box]) {
+                if (found < out.length) {
+                    out[found] = box;
+                }
+                found++;
+            }
+        }
+        return found;
+    }
+
+    public int getBoxCount() { return boxCount; }
+
+    private int cellX(int x) {  // 화면 밖 좌표는 가장자리 칸으로 모음. 정확한 판정은 query에서 함.
+        int c = Math.floorDiv(x - originX, cellSize);
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int cellY(int y) {
+        int r = Math.floorDiv(y - originY, cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
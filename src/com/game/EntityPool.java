@@ -0,0 +1,105 @@
+package com.game;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+public class EntityPool<T extends EntityPool.Poolable> {  /* 자주 생성되고 금방 버려지는 객체(Bullet, EnemyBullet, BoomEffect)를 재사용하는 타입별 풀. cap은 재사용하려고 보관하는 개수의 상한이고, 꺼낼 수 있는 개수는 제한하지 않음. */
+
+    public interface Poolable {
+        void onAcquire();  // 풀에서 꺼내질때 호출
+        void onRelease();  // 풀로 돌아올때 호출, 이후 사용되면 안됨.
+    }
+
+    private final String name;
+    private final Supplier<T> factory;
+    private Object[] free;  // 반납된 객체 스택
+    private int freeCount;
+    private int cap;  // 반납된 객체를 보관하는 최대 개수, 넘게 반납되면 버림
+
+    private int inUse;      // 현재 사용중인 개수
+    private int highWater;  // inUse의 최대값
+    private long hits;      // 반납된 객체를 재사용한 횟수
+    private long misses;    // 새로 만든 횟수
+    private long overflow;  // 사용중인 개수가 이미 cap 이상일때 꺼낸 횟수, 이 객체들은 반납돼도 다 보관하지 못함
+
+    public EntityPool(String name, Supplier<T> factory, int cap) {
+        this.name = name;
+        this.factory = factory;
+        this.cap = cap;
+        this.free = new Object[Math.min(cap, 64)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T acquire() {  // 사용할 객체를 반환, 보관된 것이 없으면 새로 만듦. null을 반환하지 않음.
+        if (inUse >= cap) {
+            overflow++;
+        }
+        T item;
+        if (freeCount > 0) {
+            item = (T) free[--freeCount];
+            free[freeCount] = null;
+            hits++;
+        } else {
+            item = factory.get();
+            misses++;
+        }
+        if (++inUse > highWater) {
+            highWater = inUse;
+        }
+        item.onAcquire();
+        return item;
+    }
+
+    public void release(T item) {  // 다 쓴 객체를 반납.
+        item.onRelease();
+        inUse--;
+        if (freeCount == free.length) {
+            if (free.length >= cap) {  // cap만큼 보관하고 있으면 버림.
+                return;
+            }
+            grow();
+        }
+        free[freeCount++] = item;
+    }
+
+    public void prefill(int count) {  // 게임 도중 새로 만드는 일이 없도록 미리 만들어 둠.
+        while (freeCount < count && freeCount < cap) {
+            if (freeCount == free.length) {
+                grow();
+            }
+            free[freeCount++] = factory.get();
+        }
+    }
+
+    private void grow() {  // free.length < cap일때만 호출
+        free = Arrays.copyOf(free, Math.min(cap, Math.max(16, free.length * 2)));
+    }
+
+    public void setCap(int cap) {  // 줄이면 cap을 넘게 보관중인 객체를 버리고 배열도 cap 크기로 줄임.
+        this.cap = cap;
+        if (free.length > cap) {
+            freeCount = Math.min(cap, freeCount);
+            free = Arrays.copyOf(free, cap);
+        }
+    }
+
+    public int getCap() { return cap; }
+
+    public String getName() { return name; }
+
+    public int getInUse() { return inUse; }
+
+    public int getHighWater() { return highWater; }
+
+    public long getHits() { return hits; }
+
+    public long getMisses() { return misses; }
+
+    public long getOverflow() { return overflow; }
+
+    @Override
+    public String toString() {
+        return name + "[inUse=" + inUse + ", highWater=" + highWater + ", hits=" + hits + ", misses=" + misses
+                + ", overflow=" + overflow + ", cap=" + cap + "]";
+    }
+}
@@ -0,0 +1,270 @@
+package com.game;
+
+import java.util.Arrays;
+
+public class EntityWorld {  /* 게임 객체들의 상태를 타입별 저장소(Store)의 기본형 배열에 나눠 담는 저장소. 타입별 배열은 빈틈없이 붙어있고, handle은 객체가 살아있는 동안 바뀌지 않는 칸 번호로 저장소 안의 위치를 가리킴. 칸을 오래 들고 있을때는 세대가 붙은 ref를 써서 재사용된 칸을 알아봄. */
+
+    public static final int TYPE_BACKGROUND = 0;  // 쓰지 않음. 배경은 객체가 아니라 ScrollingBackground가 그림. 다른 번호와 checksum이 바뀌지 않게 자리만 남김.
+    public static final int TYPE_PLAYER = 1;
+    public static final int TYPE_ENEMY = 2;
+    public static final int TYPE_BULLET = 3;
+    public static final int TYPE_ENEMY_BULLET = 4;
+    public static final int TYPE_BOOM = 5;
+    public static final int TYPE_COUNT = 6;
+
+    public static final int FLAG_ALIVE = 1;     // 사용중인 칸
+    public static final int FLAG_HIT = 2;       // 총알에 맞았음
+    public static final int FLAG_IN_FRAME = 4;  // enemy가 화면 안으로 들어왔음
+    public static final int FLAG_DEAD = 8;      // kill로 제거가 예약됨, commit까지는 저장소에 남아있음
+
+    public static final class Store {  /* 한 타입의 객체들. 0 ~ count-1이 모두 살아있고, 제거하면 마지막 객체를 빈 자리로 옮김. system은 이 배열들을 직접 순회함. */
+
+        int count;
+        int[] x;
+        int[] y;
+        int[] dx;  // tick당 x축 속도
+        int[] dy;  // tick당 y축 속도
+        int[] w;
+        int[] h;
+        int[] flags;
+        long[] time;  // 타입별 시간값. enemy는 마지막 발사 시간, 폭발효과는 터진 시간.
+        int[] handle; // 저장소 안의 위치 -> 칸 번호
+
+        Store(int capacity) {
+            x = new int[capacity];
+            y = new int[capacity];
+            dx = new int[capacity];
+            dy = new int[capacity];
+            w = new int[capacity];
+            h = new int[capacity];
+            flags = new int[capacity];
+            time = new long[capacity];
+            handle = new int[capacity];
+        }
+
+        private int add(int slot, int px, int py, int width, int height) {
+            if (count == x.length) {
+                int capacity = count * 2;
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                dx = Arrays.copyOf(dx, capacity);
+                dy = Arrays.copyOf(dy, capacity);
+                w = Arrays.copyOf(w, capacity);
+                h = Arrays.copyOf(h, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+                time = Arrays.copyOf(time, capacity);
+                handle = Arrays.copyOf(handle, capacity);
+            }
+            int i = count++;
+            x[i] = px;
+            y[i] = py;
+            dx[i] = 0;
+            dy[i] = 0;
+            w[i] = width;
+            h[i] = height;
+            flags[i] = FLAG_ALIVE;
+            time[i] = 0;
+            handle[i] = slot;
+            return i;
+        }
+
+        private int remove(int i) {  // i 자리에 마지막 객체를 옮기고 옮겨진 객체의 칸 번호를 반환, 옮긴게 없으면 -1.
+            int last = --count;
+            if (i == last) {
+                return -1;
+            }
+            x[i] = x[last];
+            y[i] = y[last];
+            dx[i] = dx[last];
+            dy[i] = dy[last];
+            w[i] = w[last];
+            h[i] = h[last];
+            flags[i] = flags[last];
+            time[i] = time[last];
+            handle[i] = handle[last];
+            return handle[i];
+        }
+
+        public int getCount() { return count; }
+
+        public int getHandle(int i) { return handle[i]; }
+    }
+
+    private final Store[] stores = new Store[TYPE_COUNT];
+
+    private int[] slotType;   // 칸 -> 타입
+    private int[] slotIndex;  // 칸 -> 저장소 안의 위치, 빈 칸이면 -1
+    private int slotCount;  // 한번이라도 사용된 칸의 수. 순회는 0 ~ slotCount-1
+    private int[] free;     // 비어있는 칸 번호 스택
+    private int freeCount;
+    private int[] generation;  // 칸 -> 비워진 횟수. ref에 함께 담아서 칸이 재사용됐는지 확인.
+    private int[] pending = new int[64];  // kill된 칸, kill한 순서대로 commit에서 제거
+    private int pendingCount;
+
+    public EntityWorld(int capacity) {
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            stores[t] = new Store(Math.max(4, capacity / 4));
+        }
+        slotType = new int[capacity];
+        slotIndex = new int[capacity];
+        free = new int[capacity];
+        generation = new int[capacity];
+    }
+
+    public Store store(int entityType) { return stores[entityType]; }
+
+    public int create(int entityType, int px, int py, int width, int height) {  // 빈 칸을 찾아 객체를 만들고 handle을 반환.
+        int handle;
+        if (freeCount > 0) {
+            handle = free[--freeCount];
+        } else {
+            if (slotCount == slotType.length) {
+                int capacity = slotCount * 2;
+                slotType = Arrays.copyOf(slotType, capacity);
+                slotIndex = Arrays.copyOf(slotIndex, capacity);
+                free = Arrays.copyOf(free, capacity);
+                generation = Arrays.copyOf(generation, capacity);
+            }
+            handle = slotCount++;
+        }
+        slotType[handle] = entityType;
+        slotIndex[handle] = stores[entityType].add(handle, px, py, width, height);
+        return handle;
+    }
+
+    public void destroy(int handle) {  // 칸을 비움. 같은 칸은 이후 create에서 재사용됨. 저장소 안에서는 마지막 객체가 이 자리로 옮겨짐.
+        int index = slotIndex[handle];
+        if (index < 0) {
+            return;
+        }
+        int moved = stores[slotType[handle]].remove(index);
+        if (moved != -1) {
+            slotIndex[moved] = index;
+        }
+        slotIndex[handle] = -1;
+        generation[handle]++;
+        free[freeCount++] = handle;
+    }
+
+    public boolean kill(int handle) {  /* 제거를 예약하고 FLAG_DEAD를 켬. 저장소 위치가 tick 도중에 바뀌지 않으므로 순회중에도 부를 수 있음. 이미 예약됐거나 빈 칸이면 false. */
+        int index = slotIndex[handle];
+        if (index < 0) {
+            return false;
+        }
+        Store s = stores[slotType[handle]];
+        if ((s.flags[index] & FLAG_DEAD) != 0) {
+            return false;
+        }
+        s.flags[index] |= FLAG_DEAD;
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+        }
+        pending[pendingCount++] = handle;
+        return true;
+    }
+
+    public int getPendingCount() { return pendingCount; }
+
+    public int getPending(int k) { return pending[k]; }  // commit 전에 칸별 정리(풀 반납 등)를 할때 사용
+
+    public void commit() {  // 예약된 칸들을 kill한 순서대로 비움. 예약된 수에만 비례.
+        for (int k = 0; k < pendingCount; k++) {
+            destroy(pending[k]);
+        }
+        pendingCount = 0;
+    }
+
+    public int getSlotCount() { return slotCount; }
+
+    public int getCount(int entityType) { return stores[entityType].count; }
+
+    public int getLiveCount() { return slotCount - freeCount; }
+
+    public boolean isAlive(int handle) { return slotIndex[handle] >= 0; }  // kill됐어도 commit 전까지는 true
+
+    public long ref(int handle) { return (long) generation[handle] << 32 | handle; }  // 칸 번호와 지금 세대. 칸이 비워지면 이 ref는 더 이상 resolve되지 않음.
+
+    public int resolve(long ref) {  // ref가 가리키던 객체가 아직 있으면 칸 번호, 제거됐거나 칸이 재사용됐으면 -1. kill된 객체도 -1.
+        int handle = (int) ref;
+        if (handle < 0 || handle >= slotCount || generation[handle] != (int) (ref >>> 32) || slotIndex[handle] < 0
+                || (stores[slotType[handle]].flags[slotIndex[handle]] & FLAG_DEAD) != 0) {
+            return -1;
+        }
+        return handle;
+    }
+
+    public int getType(int handle) { return slotType[handle]; }
+
+    public int indexOf(int handle) { return slotIndex[handle]; }  // 저장소 안의 위치, 다른 객체가 제거되면 바뀔 수 있음.
+
+    public int getX(int handle) { return stores[slotType[handle]].x[slotIndex[handle]]; }
+
+    public int getY(int handle) { return stores[slotType[handle]].y[slotIndex[handle]]; }
+
+    public void setPosition(int handle, int px, int py) {
+        Store s = stores[slotType[handle]];
+        int i = slotIndex[handle];
+        s.x[i] = px;
+        s.y[i] = py;
+    }
+
+    public int getWidth(int handle) { return stores[slotType[handle]].w[slotIndex[handle]]; }
+
+    public int getHeight(int handle) { return stores[slotType[handle]].h[slotIndex[handle]]; }
+
+    public int getSpeedX(int handle) { return stores[slotType[handle]].dx[slotIndex[handle]]; }
+
+    public int getSpeedY(int handle) { return stores[slotType[handle]].dy[slotIndex[handle]]; }
+
+    public void setSpeed(int handle, int xDel, int yDel) {
+        Store s = stores[slotType[handle]];
+        int i = slotIndex[handle];
+        s.dx[i] = xDel;
+        s.dy[i] = yDel;
+    }
+
+    public boolean hasFlag(int handle, int flag) {
+        int i = slotIndex[handle];
+        return i >= 0 && (stores[slotType[handle]].flags[i] & flag) != 0;
+    }
+
+    public void setFlag(int handle, int flag, boolean on) {
+        Store s = stores[slotType[handle]];
+        int i = slotIndex[handle];
+        if (on) {
+            s.flags[i] |= flag;
+        } else {
+            s.flags[i] &= ~flag;
+        }
+    }
+
+    public long getTime(int handle) { return stores[slotType[handle]].time[slotIndex[handle]]; }
+
+    public void setTime(int handle, long t) { stores[slotType[handle]].time[slotIndex[handle]] = t; }
+
+    public long checksum() {  // 살아있는 칸들의 상태를 칸 번호 순서로 섞은 값. 리플레이가 같은 상태에 도달했는지 비교하는 용도.
+        long hash = 0xcbf29ce484222325L;
+        for (int h = 0; h < slotCount; h++) {
+            int i = slotIndex[h];
+            if (i < 0) {
+                continue;
+            }
+            Store s = stores[slotType[h]];
+            hash = mix(hash, h);
+            hash = mix(hash, slotType[h]);
+            hash = mix(hash, s.x[i]);
+            hash = mix(hash, s.y[i]);
+            hash = mix(hash, s.dx[i]);
+            hash = mix(hash, s.dy[i]);
+            hash = mix(hash, s.w[i]);
+            hash = mix(hash, s.h[i]);
+            hash = mix(hash, s.flags[i]);
+            hash = mix(hash, s.time[i]);
+        }
+        return hash;
+    }
+
+    static long mix(long hash, long value) {  // FNV-1a를 8바이트 단위로 적용
+        return (hash ^ value) * 0x100000001b3L;
+    }
+}
@@ -0,0 +1,49 @@
+package com.game;
+
+public interface GameClock {  /* 모델이 쿨타임 계산에 쓰는 시계(ms). update 시작때 한번 advance하고 그 tick 동안은 now가 바뀌지 않음. */
+
+    long advance();  // 이번 tick의 시각으로 넘어가고 그 시각을 반환
+
+    long now();      // 이번 tick의 시각
+
+    static GameClock system() {  // 벽시계. 실행할때마다 결과가 달라지고 update를 빨리 돌려도 쿨타임은 실제 시간으로 흐름.
+        return new SystemClock();
+    }
+
+    static GameClock ticks(long millisPerTick) {  // tick 수로 계산하는 시계(기본값). 같은 입력이면 같은 결과가 나오고, update를 얼마나 빨리 돌리든 게임 안의 시간은 같음.
+        return new TickClock(millisPerTick);
+    }
+
+    final class SystemClock implements GameClock {
+        private long now = System.currentTimeMillis();  // 첫 advance 전에는 만든 시각
+
+        @Override
+        public long advance() {
+            now = System.currentTimeMillis();
+            return now;
+        }
+
+        @Override
+        public long now() { return now; }
+    }
+
+    final class TickClock implements GameClock {
+        private final long millisPerTick;
+        private long ticks;
+
+        public TickClock(long millisPerTick) {
+            this.millisPerTick = millisPerTick;
+        }
+
+        @Override
+        public long advance() {
+            ticks++;
+            return now();
+        }
+
+        @Override
+        public long now() { return ticks * millisPerTick; }
+
+        public long getMillisPerTick() { return millisPerTick; }
+    }
+}
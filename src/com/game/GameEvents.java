@@ -0,0 +1,70 @@
+package com.game;
+
+public final class GameEvents {  /* 게임 코드에서 JFR 이벤트를 남기는 곳. 이벤트 정의(JfrEvents)는 jdk.jfr이 필요해서 jfr/ 폴더에 따로 있고 이름으로 찾아 로드함. 빌드하지 않았거나 jdk.jfr이 없는 JVM에서는 아무것도 하지 않음. 녹화중이 아니면 이벤트가 꺼진 것을 확인하는 비용뿐. */
+
+    public static final String JFR_CLASS = "com.game.JfrEvents";
+
+    interface Sink {  // JfrEvents가 구현. begin은 이벤트가 꺼져 있으면 null.
+        Object beginTick();
+        void endTick(Object started, long tick, EntityWorld world);
+        Object beginFrame();
+        void endFrame(Object started, long tick, int drawCalls, int culled);
+        void spawn(int type, int x, int y);
+        void collision(int bulletType, int targetType, int x, int y);
+        void gameOver(long tick);
+    }
+
+    private static final Sink SINK = load();  // null이면 이벤트를 남기지 않음
+
+    private GameEvents() {
+    }
+
+    private static Sink load() {
+        if (Boolean.getBoolean("game.jfr.disabled")) {
+            return null;
+        }
+        try {
+            return (Sink) Class.forName(JFR_CLASS).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {  // jfr/를 함께 빌드하지 않았거나 jdk.jfr이 없는 JVM
+            return null;
+        }
+    }
+
+    public static Object beginTick() {  // 이벤트가 꺼져 있으면 null
+        return SINK != null ? SINK.beginTick() : null;
+    }
+
+    public static void endTick(Object started, long tick, EntityWorld world) {
+        if (started != null) {
+            SINK.endTick(started, tick, world);
+        }
+    }
+
+    public static Object beginFrame() {  // 이벤트가 꺼져 있으면 null
+        return SINK != null ? SINK.beginFrame() : null;
+    }
+
+    public static void endFrame(Object started, long tick, int drawCalls, int culled) {
+        if (started != null) {
+            SINK.endFrame(started, tick, drawCalls, culled);
+        }
+    }
+
+    public static void spawn(int type, int x, int y) {
+        if (SINK != null) {
+            SINK.spawn(type, x, y);
+        }
+    }
+
+    public static void collision(int bulletType, int targetType, int x, int y) {
+        if (SINK != null) {
+            SINK.collision(bulletType, targetType, x, y);
+        }
+    }
+
+    public static void gameOver(long tick) {
+        if (SINK != null) {
+            SINK.gameOver(tick);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.game;
+
+import java.util.concurrent.locks.LockSupport;
+
+public class GameLoop implements Runnable {  /* Swing Timer 대신 별도 쓰레드에서 고정된 간격(tick)으로 시뮬레이션을 돌리고, 그리기는 따로 정한 주기로 요청하는 게임 루프. */
+
+    private final String name;
+    private final long tickNanos;    // tick 한번의 시간 간격
+    private final long frameNanos;   // 그리기 요청 간격, 0이면 매 루프마다 요청
+    private final Runnable tick;     // 시뮬레이션 한 tick
+    private final Runnable render;   // 그리기 요청. view.repaint()처럼 바로 반환되어야 함.
+
+    private int maxCatchUp = 5;          // 한번에 따라잡을 수 있는 최대 tick 수
+    private long maxFrameNanos;          // 한 루프에서 누적할 수 있는 최대 시간 (spiral of death 방지)
+
+    private volatile boolean running;
+    private Thread thread;
+
+    private volatile long tickCount;     // 실행된 tick 수
+    private volatile long frameCount;    // 요청된 그리기 수
+    private volatile long droppedTicks;  // 따라잡지 못하고 버린 tick 수
+
+    public GameLoop(String name, int ticksPerSecond, int framesPerSecond, Runnable tick, Runnable render) {
+        this.name = name;
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.frameNanos = framesPerSecond > 0 ? 1_000_000_000L / framesPerSecond : 0;
+        this.tick = tick;
+        this.render = render;
+        this.maxFrameNanos = tickNanos * 10;
+    }
+
+    public void setMaxCatchUp(int maxCatchUp) { this.maxCatchUp = maxCatchUp; }
+
+    public void setMaxFrameNanos(long maxFrameNanos) { this.maxFrameNanos = maxFrameNanos; }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, name);
+        thread.setDaemon(true);  // 창이 닫히면 루프 때문에 JVM이 남아있지 않게 함.
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+        }
+        thread = null;
+    }
+
+    public boolean isRunning() { return running; }
+
+    public long getTickNanos() { return tickNanos; }
+
+    public long getTickCount() { return tickCount; }
+
+    public long getFrameCount() { return frameCount; }
+
+    public long getDroppedTicks() { return droppedTicks; }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = tickNanos;  // 시작하자마자 첫 tick 실행
+        long lastFrame = previous - frameNanos;
+        while (running) {
+            long now = System.nanoTime();
+            long elapsed = now - previous;
+            previous = now;
+            if (elapsed > maxFrameNanos) {  // 오래 멈춰있었으면(디버거, GC, 절전 등) 그 시간을 한꺼번에 따라잡지 않음.
+                elapsed = maxFrameNanos;
+            }
+            accumulator += elapsed;
+
+            int steps = 0;
+            while (accumulator >= tickNanos && steps < maxCatchUp) {
+                tick.run();
+                tickCount++;
+                accumulator -= tickNanos;
+                steps++;
+            }
+            if (accumulator >= tickNanos) {  // 따라잡기 한도를 넘은 나머지는 버림. 밀린 tick이 계속 쌓이는 것을 막음.
+                droppedTicks += accumulator / tickNanos;
+                accumulator %= tickNanos;
+            }
+
+            now = System.nanoTime();
+            if (now - lastFrame >= frameNanos) {
+                lastFrame = now;
+                render.run();
+                frameCount++;
+            }
+
+            long untilTick = tickNanos - accumulator - (System.nanoTime() - previous);
+            long untilFrame = frameNanos - (System.nanoTime() - lastFrame);
+            long wait = frameNanos > 0 ? Math.min(untilTick, untilFrame) : untilTick;
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (Thread.interrupted() && !running) {
+                return;
+            }
+        }
+    }
+}
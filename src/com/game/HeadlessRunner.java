@@ -0,0 +1,206 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class HeadlessRunner {  /* JFrame, View, EDT 없이 DefaultGameModel만 고정된 화면 크기와 미리 정한 입력으로 최대한 빨리 돌리고 처리량을 출력. */
+
+    private final MyGame.DefaultGameModel model;
+    private final Rectangle bounds;
+    private final InputScript script;
+
+    private long ticks;         // 실행한 tick 수
+    private long elapsedNanos;  // update에 걸린 전체 시간
+    private int maxLive;        // 가장 많았을때의 객체 수
+    private Replay.Recorder recorder;  // 있으면 tick마다 입력을 기록
+
+    public HeadlessRunner(MyGame.DefaultGameModel model, Rectangle bounds, InputScript script) {
+        this.model = model;
+        this.bounds = bounds;
+        this.script = script;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");  // 화면이 없는 빌드 서버에서도 동작하게 함.
+
+        long ticks = 100_000;
+        int width = 400;
+        int height = 400;
+        int enemies = 5;
+        InputScript script = InputScript.DEFAULT;
+        long seed = System.nanoTime();
+        long tickMillis = MyGame.DefaultGameModel.TICK_MILLIS;
+        double seconds = 0;
+        String record = null;
+        int threads = -1;
+        int threshold = Integer.getInteger("game.parallelThreshold", 8192);
+        for (int i = 0; i < args.length; i++) {  // --ticks N | --seconds S, --tick-millis N --size WxH --enemies N --script FILE --seed N --record FILE --threads N --parallel-threshold N
+            switch (args[i]) {
+                case "--ticks":
+                    ticks = Long.parseLong(args[++i]);
+                    break;
+                case "--seconds":  // 게임 안의 시간으로 S초만큼 실행, --ticks 대신 사용
+                    seconds = Double.parseDouble(args[++i]);
+                    break;
+                case "--tick-millis":
+                    tickMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--size":
+                    String[] wh = args[++i].split("x");
+                    width = Integer.parseInt(wh[0]);
+                    height = Integer.parseInt(wh[1]);
+                    break;
+                case "--enemies":
+                    enemies = Integer.parseInt(args[++i]);
+                    break;
+                case "--script":
+                    script = InputScript.parse(new String(Files.readAllBytes(Paths.get(args[++i])), StandardCharsets.UTF_8));
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":  // 이동과 충돌 검사를 나눠 처리할 쓰레드 수, 1이면 순차. 없으면 CPU가 여럿일때 공용 pool 사용.
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--parallel-threshold":
+                    threshold = Integer.parseInt(args[++i]);
+                    break;
+                case "--record":  // 실행한 입력을 리플레이 파일로 저장, Replay로 재생해서 같은 결과인지 확인할 수 있음
+                    record = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+
+        if (seconds > 0) {
+            ticks = (long) Math.ceil(seconds * 1000 / tickMillis);
+        }
+        MyGame.DefaultGameModel model = new MyGame(false).new DefaultGameModel(seed, GameClock.ticks(tickMillis));  // 게임 안의 시간은 tick 수로만 흐르므로 실제 시간과 무관
+        model.setEnemyLimit(enemies);
+        if (threads >= 0) {
+            model.setParallelism(threads > 1 ? new ForkJoinPool(threads) : null, threshold);
+        }
+        HeadlessRunner runner = new HeadlessRunner(model, new Rectangle(0, 0, width, height), script);
+        if (record != null) {
+            try (Replay.Recorder recorder = new Replay.Recorder(Paths.get(record), model)) {
+                runner.setRecorder(recorder);
+                runner.run(ticks);
+            }
+        } else {
+            runner.run(ticks);
+        }
+        System.out.println(runner.report());
+        System.out.printf("seed %d, checksum %016x%n", model.getSeed(), model.checksum());
+    }
+
+    public void setRecorder(Replay.Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public void run(long count) throws IOException {  // count만큼 쉬지 않고 update
+        EntityWorld world = model.getWorld();
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            int keys = script.keysAt(ticks);  // InputState의 Direction 비트
+            model.update(bounds, keys);
+            if (recorder != null) {
+                recorder.record(bounds, keys);
+            }
+            ticks++;
+            if (world.getLiveCount() > maxLive) {
+                maxLive = world.getLiveCount();
+            }
+        }
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    public long getTicks() { return ticks; }
+
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0 ? 0 : ticks * 1e9 / elapsedNanos;
+    }
+
+    public double getSimulatedSeconds() {  // 게임 안에서 흐른 시간
+        return model.getClock().now() / 1000.0;
+    }
+
+    public String report() {
+        EntityWorld world = model.getWorld();
+        double simulated = getSimulatedSeconds();
+        return String.format("%d ticks in %.1f ms: %.0f ticks/s, %.2f us/tick%n"
+                        + "simulated %.1f s of gameplay, %.0fx real time%n"
+                        + "live %d (max %d): player %d, enemy %d, bullet %d, enemy bullet %d, boom %d, background scroll %d",
+                ticks, elapsedNanos / 1e6, getTicksPerSecond(), ticks == 0 ? 0 : elapsedNanos / 1e3 / ticks,
+                simulated, elapsedNanos == 0 ? 0 : simulated * 1e9 / elapsedNanos,
+                world.getLiveCount(), maxLive, world.getCount(EntityWorld.TYPE_PLAYER), world.getCount(EntityWorld.TYPE_ENEMY),
+                world.getCount(EntityWorld.TYPE_BULLET), world.getCount(EntityWorld.TYPE_ENEMY_BULLET),
+                world.getCount(EntityWorld.TYPE_BOOM), model.getScroll());
+    }
+
+    public static class InputScript {  /* tick별로 눌려있는 키를 InputState의 Direction 비트로 반환. 한 줄에 "시작tick 키,키,..." 형식, "loop N"이 있으면 N tick마다 반복. '#'은 주석. */
+
+        public static final InputScript DEFAULT = parse("0 SPACE,LEFT\n40 SPACE,RIGHT\nloop 80");  // 계속 쏘면서 좌우로 움직임
+
+        private final long[] starts;  // 구간 시작 tick, 오름차순
+        private final int[] keys;  // 구간별 키 비트
+        private final long loop;  // 반복 주기, 0이면 반복하지 않음
+
+        private InputScript(long[] starts, int[] keys, long loop) {
+            this.starts = starts;
+            this.keys = keys;
+            this.loop = loop;
+        }
+
+        public static InputScript parse(String text) {
+            List<Long> starts = new ArrayList<>();
+            List<Integer> keys = new ArrayList<>();
+            long loop = 0;
+            for (String line : text.split("\n")) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+", 2);
+                if (parts[0].equals("loop")) {
+                    loop = Long.parseLong(parts[1]);
+                    continue;
+                }
+                int bits = 0;
+                if (parts.length > 1) {
+                    for (String key : parts[1].split(",")) {
+                        if (!key.trim().isEmpty()) {
+                            bits |= InputState.bit(MyGame.Direction.valueOf(key.trim().toUpperCase()));
+                        }
+                    }
+                }
+                starts.add(Long.parseLong(parts[0]));
+                keys.add(bits);
+            }
+            long[] s = new long[starts.size()];
+            int[] k = new int[keys.size()];
+            for (int i = 0; i < s.length; i++) {
+                s[i] = starts.get(i);
+                k[i] = keys.get(i);
+            }
+            return new InputScript(s, k, loop);
+        }
+
+        public int keysAt(long tick) {
+            if (loop > 0) {
+                tick %= loop;
+            }
+            int current = 0;
+            for (int i = 0; i < starts.length && starts[i] <= tick; i++) {
+                current = keys[i];
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.game;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InputState {  /* 눌려있는 키를 Direction별 비트로 담는 AtomicInteger와, 누르고 뗀 이벤트를 시각과 함께 담는 링버퍼. EDT 하나가 쓰고 게임 루프 쓰레드 하나가 tick마다 비움. */
+
+    private static final MyGame.Direction[] DIRECTIONS = MyGame.Direction.values();  // values()는 호출마다 배열을 복사하므로 한번만
+
+    public static final int LEFT = bit(MyGame.Direction.LEFT);
+    public static final int RIGHT = bit(MyGame.Direction.RIGHT);
+    public static final int UP = bit(MyGame.Direction.UP);
+    public static final int DOWN = bit(MyGame.Direction.DOWN);
+    public static final int SPACE = bit(MyGame.Direction.SPACE);
+
+    private static final int PRESSED = 1 << 8;  // 이벤트 값에서 누름을 나타내는 비트, 아래 비트는 Direction 순서
+
+    private final AtomicInteger held = new AtomicInteger();  // 지금 눌려있는 키
+    private final long[] times;  // 이벤트가 들어온 시각 (nanoTime)
+    private final int[] events;  // Direction 순서 | PRESSED
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();  // 다음에 읽을 위치, 게임 루프 쓰레드만 씀
+    private final AtomicLong tail = new AtomicLong();  // 다음에 쓸 위치, EDT만 씀
+    private long dropped;  // 버퍼가 가득 차서 버린 이벤트 수, EDT만 씀
+
+    public InputState(int capacity) {  // capacity는 2의 거듭제곱
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        times = new long[capacity];
+        events = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public static int bit(MyGame.Direction direction) {
+        return 1 << direction.ordinal();
+    }
+
+    public static int toMask(Set<MyGame.Direction> keys) {  // Set으로 받는 예전 방식의 입력을 비트로 바꿈
+        int bits = 0;
+        for (MyGame.Direction direction : DIRECTIONS) {
+            if (keys.contains(direction)) {
+                bits |= bit(direction);
+            }
+        }
+        return bits;
+    }
+
+    public void set(MyGame.Direction direction, boolean pressed) {  // EDT에서 키를 누르거나 뗄때 호출
+        int bit = bit(direction);
+        int before;
+        do {
+            before = held.get();
+        } while (!held.compareAndSet(before, pressed ? before | bit : before & ~bit));
+        if (((before & bit) != 0) == pressed) {  // 키를 누르고 있으면 반복해서 들어오는 pressed는 기록하지 않음
+            return;
+        }
+        long t = tail.get();
+        if (t - head.get() == events.length) {
+            dropped++;  // 눌림 상태는 held에 반영되었으므로 짧게 누른 입력만 잃을 수 있음
+            return;
+        }
+        int i = (int) t & mask;
+        times[i] = System.nanoTime();
+        events[i] = direction.ordinal() | (pressed ? PRESSED : 0);
+        tail.lazySet(t + 1);  // 내용을 쓴 다음에 위치를 공개
+    }
+
+    public int drain(PerfStats.Timing latency) {  /* 게임 루프 쓰레드에서 tick마다 호출. 지금 눌려있는 키와, 지난 tick 이후 눌렸다가 이미 떼어진 키를 합쳐서 반환. latency가 있으면 이벤트가 들어와서 tick에 반영되기까지의 시간을 기록. */
+        int keys = held.get();
+        long h = head.get();
+        long t = tail.get();
+        if (h == t) {
+            return keys;
+        }
+        long now = System.nanoTime();
+        for (; h < t; h++) {
+            int i = (int) h & mask;
+            int event = events[i];
+            if ((event & PRESSED) != 0) {
+                keys |= 1 << (event & (PRESSED - 1));  // tick 사이에 눌렀다 뗀 키도 한 tick은 눌린 것으로 처리
+            }
+            if (latency != null) {
+                latency.record(now - times[i]);
+            }
+        }
+        head.lazySet(t);
+        return keys;
+    }
+
+    public int getHeld() { return held.get(); }
+
+    public long getDropped() { return dropped; }
+}
@@ -8,21 +8,19 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.AbstractAction;
 import javax.swing.ActionMap;
 import javax.swing.InputMap;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.KeyStroke;
-import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
@@ -163,9 +161,9 @@ public class Main {
         private GameModel model;
         private GameView view;
 
-        private Timer timer;
+        private GameLoop loop;
 
-        private Set<Direction> keys = new HashSet<>(25);
+        private Set<Direction> keys = ConcurrentHashMap.newKeySet();
 
         public DefaultGameController(GameModel gameModel, GameView gameView) {
             gameView.setController(this);
@@ -176,7 +174,9 @@ public class Main {
 
         @Override
         public Entity[] getEntities() {
-            return model.getEntities();
+            synchronized (model) {
+                return model.getEntities();
+            }
         }
 
         @Override
@@ -190,17 +190,24 @@ public class Main {
 
         @Override
         public void start() {
-            if (timer != null && timer.isRunning()) {
-                timer.stop();
+            if (loop != null && loop.isRunning()) {
+                loop.stop();
             }
-            timer = new Timer(40, new ActionListener() {
+            loop = new GameLoop("game-loop", Integer.getInteger("game.tps", 25), Integer.getInteger("game.fps", 60), new Runnable() {
+                @Override
+                public void run() {
+                    Rectangle bounds = view.getViewBounds();
+                    synchronized (model) {
+                        model.update(bounds, Collections.unmodifiableSet(keys));
+                    }
+                }
+            }, new Runnable() {
                 @Override
-                public void actionPerformed(ActionEvent e) {
-                    model.update(view.getViewBounds(), Collections.unmodifiableSet(keys));
+                public void run() {
                     view.repaint();
                 }
             });
-            timer.start();
+            loop.start();
         }
 
     }
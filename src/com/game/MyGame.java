@@ -2,12 +2,13 @@ package com.game;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.awt.image.BufferStrategy;
 import java.util.*;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import javax.swing.*;
-import javax.swing.Timer;
 
 public class MyGame {
 
@@ -15,7 +16,15 @@ public class MyGame {
         new MyGame();
     }
 
-    public MyGame() {                           // Event Dispatching Thread에서 처리하기 위해 invokeLater 메소드를 사용.
+    public MyGame() {
+        this(true);
+    }
+
+    MyGame(boolean showWindow) {  // showWindow가 false이면 창을 띄우지 않고 모델만 만들어 쓸 수 있음. (측정, 헤드리스 실행용)
+        if (!showWindow) {
+            return;
+        }
+        // Event Dispatching Thread에서 처리하기 위해 invokeLater 메소드를 사용.
         EventQueue.invokeLater(new Runnable() { // https://www.euler.kr/trl/2014/02/15/swing-event-dispatch-thread.html
             @Override
             public void run() {
@@ -26,13 +35,46 @@ public class MyGame {
                     ex.printStackTrace(); // printStackTrace()는 에러메세지의 발생 근원지를 찾아서 단계별로 에러를 출력한다.
                 }
 
-                GameModel model = new DefaultGameModel();  // 게임객체들의 생성 및 이동을 관리.
-                DefaultGameView view = new DefaultGameView();  // JPanel을 상속받은 View, 화면 표시 및 명령입력을 받음.
-                GameController controller = new DefaultGameController(model, view);
+                String recordFile = System.getProperty("game.record");  // -Dgame.record=파일 이면 이번 판을 리플레이로 저장.
+                String replayFile = System.getProperty("game.replay");  // -Dgame.replay=파일 이면 키 입력 대신 저장된 판을 재생.
+                String scenarioFile = System.getProperty("game.scenario");  // -Dgame.scenario=파일 이면 부하 시나리오 실행 후 분위수 출력.
+                Replay.Reader replay = null;
+                Scenario scenario = null;
+                DefaultGameModel model;  // 게임객체들의 생성 및 이동을 관리.
+                try {
+                    if (scenarioFile != null) {  // 화면 크기는 창 크기를 따름
+                        scenario = Scenario.load(java.nio.file.Paths.get(scenarioFile));
+                        model = scenario.newModel();
+                    } else if (replayFile != null) {
+                        replay = new Replay.Reader(java.nio.file.Paths.get(replayFile));
+                        model = replay.newModel();
+                    } else if (Boolean.getBoolean("game.wallClock")) {  // -Dgame.wallClock=true이면 예전처럼 벽시계로 쿨타임 계산 (기록 불가)
+                        model = new DefaultGameModel(System.nanoTime(), GameClock.system());
+                    } else {  // tick 하나가 1000/game.tps ms. game.speed로 루프를 빠르게 돌려도 게임 안의 시간은 tick 수로만 흐름.
+                        model = new DefaultGameModel(System.nanoTime(), GameClock.ticks(1000 / Integer.getInteger("game.tps", 25)));
+                    }
+                } catch (java.io.IOException ex) {
+                    ex.printStackTrace();
+                    return;
+                }
+                GameView view = Boolean.getBoolean("game.activeRendering")  // -Dgame.activeRendering=true이면 BufferStrategy로 직접 그리는 View 사용.
+                        ? new ActiveGameView() : new DefaultGameView();  // JPanel을 상속받은 View, 화면 표시 및 명령입력을 받음.
+                DefaultGameController controller = new DefaultGameController(model, view);
+                if (scenario != null) {
+                    controller.setScenario(scenario);
+                } else if (replay != null) {
+                    controller.setReplay(replay);
+                } else if (recordFile != null) {
+                    try {
+                        controller.setRecorder(new Replay.Recorder(java.nio.file.Paths.get(recordFile), model));
+                    } catch (java.io.IOException ex) {
+                        ex.printStackTrace();
+                    }
+                }
 
                 JFrame frame = new JFrame("Testing");
                 frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-                frame.add(view);
+                frame.add((Component) view);
                 frame.pack();  // 구성요소의 크기에 맞춰서 frame의 크기를 조절.
                 frame.setLocationRelativeTo(null);  // 매개변수 안의 컴포넌트에 따라 frame의 상대적 위치 지정, null이면 가운데.
                 frame.setVisible(true);
@@ -60,11 +102,15 @@ public class MyGame {
     public interface GameModel {
         public Player getPlayer();
         public Entity[] getEntities();     // entity가 있는 배열을 가져옴
+        public RenderSnapshot getSnapshot();  // 마지막으로 끝난 update의 그리기용 상태, 락 없이 읽을 수 있음
         public void update(Rectangle bounds, Set<Direction> keys); // 이미지와 명령 집합을 받아 update
+        public void update(Rectangle bounds, int keys);  // 명령을 InputState의 Direction 비트로 받아 update
     }
 
     public interface GameController {
         public Entity[] getEntities();    // entity가 있는 배열을 가져옴
+        public RenderSnapshot getSnapshot();
+        public PerfStats getStats();      // 성능 HUD에 표시할 측정값
         public void setDirection(Direction direction, boolean pressed); // 눌려진키가 뭔지, 눌려졌는지를 받아 명령결정.
         public void start();     // 시작함.
         public void stop();
@@ -78,21 +124,69 @@ public class MyGame {
         public void repaint();  //  GameView를 다시 그려줌
     }
 
-    public class DefaultGameModel implements GameModel {  /*  플레이어를 비롯한 게임 객체들의 생성과 움직임을 관리. */
+    public class DefaultGameModel implements GameModel {  /*  플레이어를 비롯한 게임 객체들의 생성과 움직임을 관리. 상태는 EntityWorld의 배열에 담고, Entity 객체는 그리기용 view로만 사용. */
 
-        private final List<Entity> entities; // Entity를 담는 상수 List 필드
+        private final EntityWorld world; // 모든 게임 객체의 위치, 속도, 크기, 상태를 담는 저장소
         private Player player;  // 플레이어 객체를 담는 필드
-        private final ArrayList<Enemy> enemies; // Enemy를 담는 상수 ArrayList 필드
-        private Enemy enemy;  // enemy 객체를 참조할 변수
-        private Background background1; // 배경1 , 배경1과 배경2는 끊기지 않는 배경연결을 위한것으로 결국 같은 배경.
-        private Background background2; // 배경2
-
-        private Long lastShot; // bullet이 발사된 시간을 System.currentTimeMillis()로 받아와 저장.
-        private Long enemyCreateCoolTime;
+        private int playerHandle = -1;  // world 안의 player 칸, 파괴되면 -1
+        private int enemy = -1;  // 마지막으로 생성된 enemy 칸
+        private long scroll;  // 배경이 흐른 거리(픽셀). 배경은 객체가 아니라 이 값으로 ScrollingBackground가 그림.
+
+        private long lastShot; // bullet이 발사된 시간을 clock에서 받아와 저장.
+        private long enemyCreateCoolTime;
+        private int enemyLimit = 5;  // 화면에 동시에 존재할 수 있는 enemy 수
+        private long spawnCooltime = SPAWN_COOLTIME;
+        private long fireCooltime = FIRE_COOLTIME;
+        private final long seed;  // random의 시작값, 리플레이 파일에 기록됨
+        private final Random random;  // enemy 생성 위치와 속도 결정. 모델의 모든 난수는 여기서만 뽑아야 리플레이가 재현됨.
+        private final GameClock clock;  // 쿨타임용 시각. update마다 한번 advance.
+        private final TimingWheel timers;  // enemy 생성, enemy 발사, 폭발효과 제거 시각. 번호는 SPAWN_TIMER 또는 칸 번호 + 1.
+
+        private final CollisionGrid grid = new CollisionGrid(32);  // bullet/enemy, enemyBullet/player 충돌 검사용 격자
+        private int[] gridEnemies = new int[16];  // 격자에 등록된 box 번호 -> enemy 칸
+        private int[] hits = new int[16];  // 격자 검색 결과를 담는 버퍼
+        private byte[] bulletHit = new byte[64];       // 저장소 위치별 이번 tick에 맞았는지(expiry에서는 화면 밖인지), 병렬 단계에서 채우고 순차 단계에서 처리
+        private byte[] enemyBulletHit = new byte[64];
+        private byte[] enemyHit = new byte[16];
+        private BulletKernel kernel = BulletKernel.fromProperty();  // 총알 이동, 화면 밖, player 판정을 배열 단위로 처리. -Dgame.kernel=vector이면 SIMD 구현.
+        private int playerLeft, playerTop, playerRight, playerBottom;  // 이번 tick의 player 판정 범위, player가 없으면 비어있음
+        private Rectangle cullBounds;  // expiry 중에 쓰는 화면 크기
+
+        private ForkJoinPool pool = Runtime.getRuntime().availableProcessors() > 1 ? ForkJoinPool.commonPool() : null;  // null이면 항상 순차
+        private int parallelThreshold = Integer.getInteger("game.parallelThreshold", 8192);  // 이보다 적은 수는 나누지 않음
+        private int[][] partHits = new int[0][];  // 조각별 격자 검색 버퍼
+
+        private AbstractEntity[] views = new AbstractEntity[64];  // 칸별로 재사용하는 그리기용 view
+        private int[] viewTypes = new int[64];
+
+        private final EntityPool<Bullet> bulletPool = new EntityPool<>("Bullet", Bullet::new, 256);  // 자주 생기고 없어지는 객체들의 풀
+        private final EntityPool<EnemyBullet> enemyBulletPool = new EntityPool<>("EnemyBullet", EnemyBullet::new, 1024);
+        private final EntityPool<BoomEffect> boomPool = new EntityPool<>("BoomEffect", BoomEffect::new, 128);
+
+        private final RenderSnapshot.TripleBuffer snapshots = new RenderSnapshot.TripleBuffer(64);  // update가 끝날때마다 그리기용 상태를 넘겨주는 버퍼
+        private long tick;  // 끝난 update 수
+
+        static final long TICK_MILLIS = 40;  // 기본 시계의 tick 간격, 기존 Timer(40)과 같음
+        static final int SPAWN_TIMER = 0;   // enemy 생성 쿨타임의 타이머 번호
+        static final long SPAWN_COOLTIME = 2500;  // 기본 enemy 생성 간격
+        static final long FIRE_COOLTIME = 300;    // 기본 enemy 발사 간격
+        static final long BOOM_LIFETIME = 1000;  // 폭발효과가 남아있는 시간
+        static final int SCROLL_SPEED = 4;  // tick마다 배경이 흐르는 픽셀 수
+
+        public DefaultGameModel() {
+            this(System.nanoTime(), GameClock.ticks(TICK_MILLIS));
+        }
 
-        public DefaultGameModel() {  // 용량이 25인 Entity를 담는 ArrayList
-            entities = new ArrayList<>(25);
-            enemies = new ArrayList<>(10);
+        public DefaultGameModel(long seed, GameClock clock) {  // 같은 seed와 tick 시계, 같은 입력이면 항상 같은 상태가 됨.
+            this.seed = seed;
+            this.random = new Random(seed);
+            this.clock = clock;
+            this.timers = new TimingWheel(clock instanceof GameClock.TickClock ? ((GameClock.TickClock) clock).getMillisPerTick() : 1);
+            timers.advance(clock.now());  // 첫 update 전에 spawnAt으로 만든 객체도 타이머를 걸 수 있게 시작 시각을 정함
+            world = new EntityWorld(64);
+            bulletPool.prefill(16);
+            enemyBulletPool.prefill(32);
+            boomPool.prefill(8);
         }
 
         @Override
@@ -100,207 +194,544 @@ public class MyGame {
             return player;
         }
 
+        public EntityWorld getWorld() {
+            return world;
+        }
+
+        public void setEnemyLimit(int enemyLimit) {
+            this.enemyLimit = enemyLimit;
+        }
+
+        public int getEnemyLimit() { return enemyLimit; }
+
+        public void setCooltimes(long spawnCooltime, long fireCooltime) {  // enemy 생성 간격과 enemy 발사 간격(ms). 이미 걸린 타이머는 다음부터 적용.
+            this.spawnCooltime = spawnCooltime;
+            this.fireCooltime = fireCooltime;
+        }
+
+        public long getTick() { return tick; }  // 끝난 update 수
+
+        public long getScroll() { return scroll; }
+
+        public long getSeed() { return seed; }
+
+        public GameClock getClock() { return clock; }
+
+        public long checksum() {  // 모델 상태 전체의 해시. update 쓰레드 밖에서 부를때는 모델을 잠그고 호출.
+            long hash = world.checksum();
+            hash = EntityWorld.mix(hash, tick);
+            hash = EntityWorld.mix(hash, lastShot);
+            hash = EntityWorld.mix(hash, enemyCreateCoolTime);
+            hash = EntityWorld.mix(hash, scroll);
+            return EntityWorld.mix(hash, player == null ? -1 : player.getLife());
+        }
+
+        public void setParallelism(ForkJoinPool pool, int threshold) {  /* bullet, enemyBullet의 이동과 충돌 검사를 pool에서 나눠 처리. pool이 null이면 순차. 결과는 순차 처리와 같음. */
+            this.pool = pool;
+            this.parallelThreshold = threshold;
+        }
+
+        public void setKernel(BulletKernel kernel) { this.kernel = kernel; }  // 어느 구현이든 결과는 같음
+
+        public BulletKernel getKernel() { return kernel; }
+
+        public EntityPool<?>[] getPools() {  // 풀별 재사용/생성 횟수와 최대 사용량 확인용, cap은 여기서 바꿀 수 있음.
+            return new EntityPool<?>[] { bulletPool, enemyBulletPool, boomPool };
+        }
+
         @Override
-        public Entity[] getEntities() {  // 특정 실체를 반환.
-            return entities.toArray(new Entity[0]); // entities 리스트를 배열로 변환
+        public RenderSnapshot getSnapshot() {  // 그리기 쓰레드 하나에서만 호출해야 함.
+            return snapshots.latest();
         }
 
         @Override
-        public void update(Rectangle bounds, Set<Direction> keys) {
-            if (enemyCreateCoolTime == null) {
-                enemyCreateCoolTime = System.currentTimeMillis();
+        public Entity[] getEntities() {  // 살아있는 칸들을 view 배열로 반환. 그리는 쪽에서만 호출됨.
+            Entity[] out = new Entity[world.getLiveCount()];
+            int k = 0;
+            for (int h = 0; h < world.getSlotCount(); h++) {
+                if (world.isAlive(h)) {
+                    out[k++] = view(h);
+                }
             }
-            if (background1 == null) {  // 배경이 없으면 생성
-                background1 = new Background(bounds);
-                entities.add(background1);
+            return out;
+        }
+
+        private Entity view(int h) {  // 풀을 쓰지 않는 타입은 칸의 타입이 바뀌었을때만 새 view를 만듦.
+            int type = world.getType(h);
+            if (type == EntityWorld.TYPE_PLAYER) {
+                return player;
             }
-            if (background2 == null) {  // 배경이 없으면 생성
-                background2 = new Background(bounds,new Point(0,-2000));
-                entities.add(background2);
+            AbstractEntity v = views[h];
+            if (v == null || viewTypes[h] != type) {
+                v = new Enemy();
+                setView(h, type, v);
             }
-            if (player == null) {  // player가 존재하지 않으면
-                player = new Player(bounds);  // 위치,사이즈를 받아 Player형 객체를 생성
-                entities.add(player); // entities 리스트에 player 객체 추가
+            return v;
+        }
+
+        private void setView(int h, int type, AbstractEntity v) {
+            if (views.length <= h) {
+                views = Arrays.copyOf(views, Math.max(h + 1, views.length * 2));
+                viewTypes = Arrays.copyOf(viewTypes, views.length);
+            }
+            v.bind(world, h);
+            views[h] = v;
+            viewTypes[h] = type;
+        }
+
+        public int spawnAt(int type, int x, int y) {  /* 해당 타입의 기본 크기로 (x, y)에 객체를 직접 생성. 벤치마크나 부하 시나리오에서 원하는 수만큼 채울때 사용. */
+            if (type == EntityWorld.TYPE_ENEMY) {
+                return spawn(type, x, y, Enemy.WIDTH, Enemy.HEIGHT);
+            } else if (type == EntityWorld.TYPE_BULLET) {
+                return spawn(type, x, y, Bullet.WIDTH, Bullet.HEIGHT);
+            } else if (type == EntityWorld.TYPE_ENEMY_BULLET) {
+                return spawn(type, x, y, EnemyBullet.WIDTH, EnemyBullet.HEIGHT);
+            } else if (type == EntityWorld.TYPE_BOOM) {
+                return spawn(type, x, y, BoomEffect.WIDTH, BoomEffect.HEIGHT);
             }
-            if (enemy == null || System.currentTimeMillis() - enemyCreateCoolTime > 2500) {   // enemy 객체 생성
-                enemyCreateCoolTime = System.currentTimeMillis();
-                if (enemies.size() < 5) {
-                    enemy = new Enemy(bounds);
-                    entities.add(enemy);
-                    enemies.add(enemy);
+            throw new IllegalArgumentException("spawnAt does not support type " + type);  // player는 update에서 하나만 만들고 배경은 객체가 아님.
+        }
+
+        private int spawn(int type, int x, int y, int width, int height) {  /* 객체 생성. 풀을 쓰는 타입은 풀에서 view를 꺼내 칸에 연결함. 풀의 cap과 상관없이 항상 생성됨. */
+            AbstractEntity v;
+            if (type == EntityWorld.TYPE_BULLET) {
+                v = bulletPool.acquire();
+            } else if (type == EntityWorld.TYPE_ENEMY_BULLET) {
+                v = enemyBulletPool.acquire();
+            } else if (type == EntityWorld.TYPE_BOOM) {
+                v = boomPool.acquire();
+            } else {
+                GameEvents.spawn(type, x, y);
+                int h = world.create(type, x, y, width, height);
+                if (type == EntityWorld.TYPE_ENEMY) {  // 마지막 발사 시간이 0이므로 그 시각이 이미 지났으면 이번 tick에 바로 발사
+                    timers.schedule(h + 1, fireCooltime + 1);
                 }
+                return h;
+            }
+            GameEvents.spawn(type, x, y);
+            int h = world.create(type, x, y, width, height);
+            if (type == EntityWorld.TYPE_BULLET) {  // bullet은 tick마다 자기 높이만큼 위로 날아감.
+                world.setSpeed(h, 0, -height);
+            } else if (type == EntityWorld.TYPE_ENEMY_BULLET) {  // enemyBullet은 tick마다 높이-2만큼 아래로 날아감.
+                world.setSpeed(h, 0, height - 2);
+            } else if (type == EntityWorld.TYPE_BOOM) {  // 폭발이 생긴 시간을 저장하고 1초 뒤에 제거되도록 타이머를 걺.
+                world.setTime(h, clock.now());
+                timers.schedule(h + 1, clock.now() + BOOM_LIFETIME + 1);
             }
+            setView(h, type, v);
+            return h;
+        }
+
+        private void kill(int h) {  /* 객체 제거를 예약. 저장소 위치는 tick이 끝날때까지 그대로라서 순회중에도 부를 수 있고, 이후 system은 FLAG_DEAD인 객체를 건너뜀. */
+            if (world.kill(h)) {
+                timers.cancel(h + 1);  // 예약된 객체는 더 이상 발사하거나 만료되지 않음, 칸이 재사용되어도 이전 객체의 타이머가 울리지 않게 함
+            }
+        }
+
+        void commitRemovals() {  /* 이번 tick에 kill된 객체들을 한번에 제거. 풀을 쓰는 타입은 view를 풀에 반납. 제거된 수에만 비례. */
+            for (int k = 0; k < world.getPendingCount(); k++) {
+                int h = world.getPending(k);
+                int type = world.getType(h);
+                if (type == EntityWorld.TYPE_BULLET) {
+                    bulletPool.release((Bullet) views[h]);
+                    views[h] = null;
+                } else if (type == EntityWorld.TYPE_ENEMY_BULLET) {
+                    enemyBulletPool.release((EnemyBullet) views[h]);
+                    views[h] = null;
+                } else if (type == EntityWorld.TYPE_BOOM) {
+                    boomPool.release((BoomEffect) views[h]);
+                    views[h] = null;
+                }
+            }
+            world.commit();
+        }
+
+        @Override
+        public void update(Rectangle bounds, Set<Direction> keys) {
+            update(bounds, InputState.toMask(keys));
+        }
+
+        @Override
+        public void update(Rectangle bounds, int keys) {  /* 한 tick. 각 system은 자기 타입의 저장소만 순서대로 순회함. */
+            Object tickEvent = GameEvents.beginTick();  // JFR 녹화중일때만 이벤트 객체가 생김
+            long now = clock.advance();
+            timers.advance(now);  // 이번 tick에 시각이 된 타이머만 꺼내둠, 각 system이 자기 것을 처리
+            spawnSystem(bounds, now);
+            playerSystem(bounds, keys);
+            movementSystem();
+            expirySystem(bounds);
+            enemySteeringSystem(bounds);
+            scrollSystem();
+            collisionSystem(bounds);  // 모든 이동이 끝난 위치로 충돌 검사
+            firingSystem(keys, now);
+            commitRemovals();  // 이번 tick에 예약된 제거를 한번에 반영
+            publish();
+            GameEvents.endTick(tickEvent, tick, world);
+        }
 
-            Point p = player.getLocation(); // player의 위치 정보를 저장
+        void spawnSystem(Rectangle bounds, long now) {  // player, enemy 생성
+            if (enemyCreateCoolTime == 0) {
+                enemyCreateCoolTime = now;
+                timers.schedule(SPAWN_TIMER, now + spawnCooltime + 1);
+            }
+            if (player == null) {  // player가 존재하지 않으면
+                int x = bounds.x + ((bounds.width - Player.WIDTH) / 2);  // x좌표는 프레임 딱 중간
+                int y = bounds.y + (bounds.height - Player.HEIGHT);  // y좌표는 프레임 밑바닥.
+                playerHandle = world.create(EntityWorld.TYPE_PLAYER, x, y, Player.WIDTH, Player.HEIGHT);
+                player = new Player();
+                player.bind(world, playerHandle);
+                GameEvents.spawn(EntityWorld.TYPE_PLAYER, x, y);
+            }
+            if (enemy == -1 || timers.isDue(SPAWN_TIMER)) {   // enemy 객체 생성, 쿨타임은 마지막 생성 시도 후 2.5초 초과
+                timers.consume(SPAWN_TIMER);
+                enemyCreateCoolTime = now;
+                timers.schedule(SPAWN_TIMER, now + spawnCooltime + 1);
+                if (world.getCount(EntityWorld.TYPE_ENEMY) < enemyLimit) {
+                    int x = bounds.x + random.nextInt(bounds.width - Enemy.WIDTH - 2) + 1;
+                    int y = bounds.y - Enemy.HEIGHT;
+                    enemy = spawn(EntityWorld.TYPE_ENEMY, x, y, Enemy.WIDTH, Enemy.HEIGHT);
+                    world.setSpeed(enemy, 0, 2);  // 생성시 x축 속도 : 0, y축 속도 : 2
+                }
+            }
+        }
 
+        void playerSystem(Rectangle bounds, int keys) {  // 입력에 따라 player 이동
+            if (playerHandle == -1) {
+                return;
+            }
             int xDelta = 0; // x축으로의 변화량, x축으로의 움직임을 담당
-            if (keys.contains(Direction.LEFT)) {  // 전달받은 keys가 LEFT이면 왼쪽으로 움직임.
+            if ((keys & InputState.LEFT) != 0) {  // 전달받은 keys가 LEFT이면 왼쪽으로 움직임.
                 xDelta = -4;
-            } else if (keys.contains(Direction.RIGHT)) {  // 전달받은 keys가 RIGHT이면 오른쪽으로 움직임.
+            } else if ((keys & InputState.RIGHT) != 0) {  // 전달받은 keys가 RIGHT이면 오른쪽으로 움직임.
                 xDelta = 4;
             }
 
             int yDelta = 0;    // y축 움직임 , UP or DOWN
-            if (keys.contains(Direction.UP)) {
+            if ((keys & InputState.UP) != 0) {
                 yDelta = -4;
-            } else if (keys.contains(Direction.DOWN)) {
+            } else if ((keys & InputState.DOWN) != 0) {
                 yDelta = 4;
             }
 
-            int backgroundYDelta = 4;
+            int px = world.getX(playerHandle) + xDelta; // 플레이어의 x좌표를 xDelta만큼 변경,움직임.
+            int py = world.getY(playerHandle) + yDelta;
+
+            if (px <= bounds.x) {  // 플레이어가 프레임 밖으로 못나가게 함.
+                px = bounds.x;  // bounds.x : 프레임 자체의 화면상 x축 절대좌표.
+            } else if (px + Player.WIDTH >= bounds.x + bounds.width) {  // 플레이어가 화면밖으로 못나가게함.
+                px = bounds.width - Player.WIDTH;
+            }
+
+            if (py <= bounds.y) {    // player가 frame 바깥으로 나가지 못하게 함
+                py = bounds.y;
+            } else if (py + Player.HEIGHT >= bounds.y + bounds.height) {
+                py = bounds.height - Player.HEIGHT;
+            }
+
+            world.setPosition(playerHandle, px, py); // player의 위치를 결정
+        }
+
+        void movementSystem() {  // bullet, enemyBullet을 속도만큼 이동. 속도는 spawn에서 정함. 서로 겹치지 않는 구간으로 나눠 병렬로 처리할 수 있음.
+            run(MOVE_BULLETS, world.getCount(EntityWorld.TYPE_BULLET));
+            run(MOVE_ENEMY_BULLETS, world.getCount(EntityWorld.TYPE_ENEMY_BULLET));
+        }
+
+        private void move(EntityWorld.Store s, int from, int to) {
+            kernel.move(s.x, s.y, s.dx, s.dy, from, to);
+        }
+
+        private void cull(EntityWorld.Store s, int from, int to, byte[] out) {  // 화면을 벗어난 총알 표시. bullet은 위로만 날아가므로 위쪽만 확인.
+            if (s == world.store(EntityWorld.TYPE_BULLET)) {
+                kernel.markOutside(s.x, s.y, s.w, s.h, from, to, Integer.MIN_VALUE, cullBounds.y, Integer.MAX_VALUE, Integer.MAX_VALUE, out);
+            } else {  // 패턴탄은 옆이나 위로도 날아가므로 네 방향 모두 확인
+                kernel.markOutside(s.x, s.y, s.w, s.h, from, to, cullBounds.x, cullBounds.y,
+                        cullBounds.x + cullBounds.width, cullBounds.y + cullBounds.height, out);
+            }
+        }
+
+        private void queryBullets(int from, int to, int[] found) {  // 구간의 bullet이 맞은 enemy를 표시. 격자는 읽기만 하고 같은 칸에 같은 값만 쓰므로 구간끼리 겹쳐도 됨.
+            EntityWorld.Store bullets = world.store(EntityWorld.TYPE_BULLET);
+            for (int i = from; i < to; i++) {
+                if ((bullets.flags[i] & EntityWorld.FLAG_DEAD) != 0) {  // 이번 tick에 이미 화면 밖으로 나갔음
+                    bulletHit[i] = 0;
+                    continue;
+                }
+                int n = grid.query(bullets.x[i], bullets.y[i], CollisionGrid.LAYER_ENEMY, found);
+                bulletHit[i] = (byte) (n > 0 ? 1 : 0);
+                for (int k = 0; k < n; k++) {
+                    enemyHit[gridEnemies[found[k]]] = 1;
+                }
+            }
+        }
 
-            p.x += xDelta; // 플레이어의 x좌표를 xDelta만큼 변경,움직임.
-            p.y += yDelta;
+        private void queryEnemyBullets(int from, int to, int[] found) {
+            EntityWorld.Store enemyBullets = world.store(EntityWorld.TYPE_ENEMY_BULLET);  // 대상이 player 하나뿐이라 격자 대신 box 하나와 비교
+            kernel.markInside(enemyBullets.x, enemyBullets.y, from, to, playerLeft, playerTop, playerRight, playerBottom, enemyBulletHit);
+        }
 
-            if (p.x <= bounds.x) {  // 플레이어가 프레임 밖으로 못나가게 함.
-                p.x = bounds.x;  // bounds.x : 프레임 자체의 화면상 x축 절대좌표.
-            } else if (p.x + player.getSize().width >= bounds.x + bounds.width) {  // 플레이어가 화면밖으로 못나가게함.
-                p.x = bounds.width - player.getSize().width;
+        private static final int MOVE_BULLETS = 0;  // run으로 나눠 처리하는 일의 종류
+        private static final int MOVE_ENEMY_BULLETS = 1;
+        private static final int QUERY_BULLETS = 2;
+        private static final int QUERY_ENEMY_BULLETS = 3;
+        private static final int CULL_BULLETS = 4;
+        private static final int CULL_ENEMY_BULLETS = 5;
+
+        private void work(int kind, int from, int to, int[] found) {
+            switch (kind) {
+                case MOVE_BULLETS:
+                    move(world.store(EntityWorld.TYPE_BULLET), from, to);
+                    break;
+                case MOVE_ENEMY_BULLETS:
+                    move(world.store(EntityWorld.TYPE_ENEMY_BULLET), from, to);
+                    break;
+                case QUERY_BULLETS:
+                    queryBullets(from, to, found);
+                    break;
+                case QUERY_ENEMY_BULLETS:
+                    queryEnemyBullets(from, to, found);
+                    break;
+                case CULL_BULLETS:
+                    cull(world.store(EntityWorld.TYPE_BULLET), from, to, bulletHit);
+                    break;
+                case CULL_ENEMY_BULLETS:
+                    cull(world.store(EntityWorld.TYPE_ENEMY_BULLET), from, to, enemyBulletHit);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown work " + kind);
             }
+        }
 
-            if (p.y <= bounds.y) {    // player가 frame 바깥으로 나가지 못하게 함
-                p.y = bounds.y;
-            } else if (p.y + player.getSize().height >= bounds.y + bounds.height) {
-                p.y = bounds.height - player.getSize().height;
+        private void run(int kind, int count) {  /* 0 ~ count-1을 처리. threshold 이상이면 쓰레드 수의 4배 조각으로 나눠 pool에서 처리하고 모두 끝날때까지 기다림. */
+            if (pool == null || count < parallelThreshold) {
+                work(kind, 0, count, hits);
+                return;
+            }
+            int parts = Math.min(pool.getParallelism() * 4, count);
+            if (partHits.length < parts) {
+                partHits = new int[parts][];
             }
+            for (int p = 0; p < parts; p++) {
+                if (partHits[p] == null || partHits[p].length < hits.length) {
+                    partHits[p] = new int[hits.length];
+                }
+            }
+            pool.invoke(new Parts(kind, count, parts, 0, parts));
+        }
 
-            player.setLocation(p); // player의 위치를 p로 결정
+        private class Parts extends RecursiveAction {  // 조각 번호 [lo, hi)를 반씩 나눠 처리. 조각 p는 count * p / parts부터.
+            private static final long serialVersionUID = 1L;
 
-            Iterator<Entity> it = entities.iterator(); // entities List의 요소에 모두 접근하기 위한 Iterator
-            while (it.hasNext()) {
-                Entity entity = it.next();
-                if (entity instanceof Bullet) { // entity가 Bullet으로 형변환이 가능하다면. bullet이면 날아감.
-                    Point location = entity.getLocation();  // entity의 위치를 받아옴.
-                    Dimension size = entity.getSize();      // entity의 크기를 받아옴
-                    location.y -= size.height;    // entity의 위치에서 entity의 높이만큼을 빼서 y축 좌표정보에 넣어줌
-                    if (location.y + size.height < bounds.y) { // 탄환이 frame 바깥으로 나가면 제거
-                        it.remove();
-                    } else {   // 그렇지 않으면 entity의 위치정보를 location으로 갱신해줌. 즉, Bullet은 위로 날아감
-                        entity.setLocation(location);
-                    }
-                    for (int i=0; i<enemies.size(); i++) {
-                        if (location.x < enemies.get(i).getLocation().x + enemies.get(i).getSize().width - 4 && location.x > enemies.get(i).getLocation().x - 3 &&
-                                location.y < enemies.get(i).getLocation().y + enemies.get(i).getSize().height - 2 && location.y > enemies.get(i).getLocation().y + 2) {  // 적에게 총알이 맞았으면
-                            it.remove();  // 총알 제거
-                            enemies.get(i).setHit();  // 적이 총알에 맞았음을 표시
-                        }
-                    }
+            private final int kind, count, parts, lo, hi;
+
+            Parts(int kind, int count, int parts, int lo, int hi) {
+                this.kind = kind;
+                this.count = count;
+                this.parts = parts;
+                this.lo = lo;
+                this.hi = hi;
+            }
+
+            @Override
+            protected void compute() {
+                if (hi - lo == 1) {
+                    work(kind, (int) ((long) count * lo / parts), (int) ((long) count * hi / parts), partHits[lo]);
+                    return;
                 }
-                if (entity instanceof EnemyBullet) { // entitu가 EnemyBullet으로 형변환이 가능하다면, enemy가 발사한 bullet이면 날아감.
-                    Point eLocation = entity.getLocation();  // EnemyBullet의 위치를 받아옴.
-                    Dimension eSize = entity.getSize();      // EnemyBullet의 크기를 받아옴.
-                    eLocation.y += eSize.height - 2; // ????????????
-                    if (eLocation.y > bounds.y + bounds.height) {
-                        it.remove();
-                    } else if(eLocation.x < player.getLocation().x + player.getSize().width - 4 && eLocation.x > player.getLocation().x - 3 &&
-                            eLocation.y < player.getLocation().y + player.getSize().height - 2 && eLocation.y > player.getLocation().y + 2) {  // player에게 총알이 맞았으면
-                        it.remove();
-                        player.setHit();
-                    } else {   // enemyBullet은 특정 방향으로 날아감.
-                        entity.setLocation(eLocation);
-                    }
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Parts(kind, count, parts, lo, mid), new Parts(kind, count, parts, mid, hi));
+            }
+        }
+
+        void expirySystem(Rectangle bounds) {  /* 화면을 벗어난 총알과 1초가 지난 폭발효과 제거 예약. 표시는 구간별로 나눠서 함. 폭발효과는 시각이 된 타이머만 확인. */
+            EntityWorld.Store bullets = world.store(EntityWorld.TYPE_BULLET);
+            EntityWorld.Store enemyBullets = world.store(EntityWorld.TYPE_ENEMY_BULLET);
+            ensureMarks(bullets.count, enemyBullets.count);
+            cullBounds = bounds;
+            run(CULL_BULLETS, bullets.count);
+            run(CULL_ENEMY_BULLETS, enemyBullets.count);
+            for (int i = 0; i < bullets.count; i++) {
+                if (bulletHit[i] != 0) { // 탄환이 frame 바깥으로 나가면 제거
+                    kill(bullets.handle[i]);
                 }
-                if (entity instanceof Enemy) {
-                    Enemy tempEnemy = (Enemy) entity;
-                    Point enemyLocation = entity.getLocation(); // 적의 위치
-                    if (!tempEnemy.getInFrame && enemyLocation.y > bounds.y) {  // 생성후 프레임 밖에서 enemy가 프레임 안으로 들어오면 속도 변경
-                        tempEnemy.getInFrame = true;
-                        int x = (int)(Math.random() * 9) - 4; // x축 속도 -4 ~ 4
-                        int y = (int)(Math.random() * 2) + 3; // y축 속도 3 ~ 4
-                        tempEnemy.setSpeed(x,y);
-                    }
+            }
+            for (int i = 0; i < enemyBullets.count; i++) {
+                if (enemyBulletHit[i] != 0) {
+                    kill(enemyBullets.handle[i]);
+                }
+            }
+            for (int k = 0; k < timers.getDueCount(); k++) {
+                int id = timers.getDue(k);
+                if (id != SPAWN_TIMER && timers.isDue(id) && world.getType(id - 1) == EntityWorld.TYPE_BOOM) { // 터진지 1초가 지났으면 폭발효과 제거.
+                    timers.consume(id);
+                    kill(id - 1);
+                }
+            }
+        }
 
-                    enemyLocation.x += tempEnemy.getSpeedX();
-                    enemyLocation.y += tempEnemy.getSpeedY();
-                    if (enemyLocation.x <= bounds.x) {   // enemy가 frame 바깥으로 나가지 못하게 함
-                        enemyLocation.x = bounds.x;
-                        Random random = new Random();
-                        int exDelta = random.nextInt(1) + 3;  // x축 속도 3~4중 랜덤 결정
-                        int eyDelta = random.nextInt(8) - 4;  // y축 속도 -4~4중 랜덤 결정
-                        tempEnemy.setSpeed(exDelta, eyDelta);  // enemy 속도 결정
-                    } else if (enemyLocation.x + tempEnemy.getSize().width >= bounds.x + bounds.width) {
-                        enemyLocation.x = bounds.width - tempEnemy.getSize().width;
-                        Random random = new Random();
-                        int exDelta = random.nextInt(1) - 4;  // x축 속도 -3 ~ -4중 랜덤 결정
-                        int eyDelta = random.nextInt(8) - 4;  // y축 속도 -4~4중 랜덤 결정
-                        tempEnemy.setSpeed(exDelta, eyDelta);  // enemy 속도 결정
-                    }
+        void enemySteeringSystem(Rectangle bounds) {  // enemy 이동과 벽에 부딪혔을때의 방향 전환
+            EntityWorld.Store s = world.store(EntityWorld.TYPE_ENEMY);
+            for (int i = 0; i < s.count; i++) {
+                int ex = s.x[i];  // 적의 위치
+                int ey = s.y[i];
+                if ((s.flags[i] & EntityWorld.FLAG_IN_FRAME) == 0 && ey > bounds.y) {  // 생성후 프레임 밖에서 enemy가 프레임 안으로 들어오면 속도 변경
+                    s.flags[i] |= EntityWorld.FLAG_IN_FRAME;
+                    s.dx[i] = random.nextInt(9) - 4; // x축 속도 -4 ~ 4
+                    s.dy[i] = random.nextInt(2) + 3; // y축 속도 3 ~ 4
+                }
 
-                    if (enemyLocation.y <= bounds.y && tempEnemy.getInFrame) {    // enemy가 frame 바깥으로 나가지 못하게 함
-                        enemyLocation.y = bounds.y;
-                        Random random = new Random();
-                        int exDelta = random.nextInt(8) - 4;  // x축 속도 -4~4중 랜덤 결정
-                        int eyDelta = random.nextInt(1) + 3;  // y축 속도 3~4중 랜덤 결정
-                        tempEnemy.setSpeed(exDelta, eyDelta);  // enemy 속도 결정
-                    } else if (enemyLocation.y + tempEnemy.getSize().height >= bounds.y + bounds.height) {
-                        enemyLocation.y = bounds.height - tempEnemy.getSize().height;
-                        Random random = new Random();
-                        int exDelta = random.nextInt(8) - 4;  // x축 속도 -4~4중 랜덤 결정
-                        int eyDelta = random.nextInt(1) - 4;  // y축 속도 -3 ~ -4중 랜덤 결정
-                        tempEnemy.setSpeed(exDelta, eyDelta);  // enemy 속도 결정
-                    }
-                    tempEnemy.setLocation(enemyLocation); // enemy의 위치를 ep결정
+                ex += s.dx[i];
+                ey += s.dy[i];
+                int ew = s.w[i];
+                int eh = s.h[i];
+                if (ex <= bounds.x) {   // enemy가 frame 바깥으로 나가지 못하게 함
+                    ex = bounds.x;
+                    s.dx[i] = random.nextInt(1) + 3;  // x축 속도 3~4중 랜덤 결정
+                    s.dy[i] = random.nextInt(8) - 4;  // y축 속도 -4~4중 랜덤 결정
+                } else if (ex + ew >= bounds.x + bounds.width) {
+                    ex = bounds.width - ew;
+                    s.dx[i] = random.nextInt(1) - 4;  // x축 속도 -3 ~ -4중 랜덤 결정
+                    s.dy[i] = random.nextInt(8) - 4;  // y축 속도 -4~4중 랜덤 결정
                 }
-                if (entity instanceof BoomEffect) {  // entity가 BoomEffect이면
-                    if (System.currentTimeMillis() - ((BoomEffect) entity).getBoomTime() > 1000) { // 터진지 1초가 지났으면 폭발효과 제거.
-                        it.remove();
-                    }
+
+                if (ey <= bounds.y && (s.flags[i] & EntityWorld.FLAG_IN_FRAME) != 0) {    // enemy가 frame 바깥으로 나가지 못하게 함
+                    ey = bounds.y;
+                    s.dx[i] = random.nextInt(8) - 4;  // x축 속도 -4~4중 랜덤 결정
+                    s.dy[i] = random.nextInt(1) + 3;  // y축 속도 3~4중 랜덤 결정
+                } else if (ey + eh >= bounds.y + bounds.height) {
+                    ey = bounds.height - eh;
+                    s.dx[i] = random.nextInt(8) - 4;  // x축 속도 -4~4중 랜덤 결정
+                    s.dy[i] = random.nextInt(1) - 4;  // y축 속도 -3 ~ -4중 랜덤 결정
                 }
-                if (entity instanceof Background) {
-                    Point location2 = entity.getLocation();
-                    location2.y += backgroundYDelta;
-                    if (location2.y > bounds.y + bounds.height) {
-                        entity.setLocation(new Point(0,-1996));
-                    } else {
-                        entity.setLocation(location2);
-                    }
+                s.x[i] = ex; // enemy의 위치 결정
+                s.y[i] = ey;
+            }
+        }
+
+        void scrollSystem() {  // 배경을 아래로 흘려보냄. 이미지 높이로 감싸는 것은 그리는 쪽(ScrollingBackground)이 함.
+            scroll += SCROLL_SPEED;
+        }
+
+        private void ensureMarks(int bullets, int enemyBullets) {  // 저장소 위치별 표시 배열의 크기 확보
+            if (bulletHit.length < bullets) {
+                bulletHit = new byte[bullets * 2];
+            }
+            if (enemyBulletHit.length < enemyBullets) {
+                enemyBulletHit = new byte[enemyBullets * 2];
+            }
+        }
+
+        void collisionSystem(Rectangle bounds) {  /* bullet->enemy 충돌은 격자로, enemyBullet->player는 player box 하나와 비교해서 처리하고, 맞은 enemy와 player를 처리. 판정 규칙은 CollisionGrid.insertHitBox 참고. */
+            EntityWorld.Store enemies = world.store(EntityWorld.TYPE_ENEMY);
+            grid.reset(bounds);
+            if (gridEnemies.length < enemies.count) {
+                gridEnemies = new int[enemies.count * 2];
+                hits = new int[enemies.count * 2];
+                enemyHit = new byte[enemies.count * 2];
+            }
+            for (int i = 0; i < enemies.count; i++) {  // 제거는 tick 끝에 하므로 저장소 위치를 그대로 기록
+                gridEnemies[grid.insertHitBox(enemies.x[i], enemies.y[i], enemies.w[i], enemies.h[i], CollisionGrid.LAYER_ENEMY)] = i;
+            }
+            if (playerHandle != -1) {  // CollisionGrid.insertHitBox와 같은 판정 범위
+                int px = world.getX(playerHandle), py = world.getY(playerHandle);
+                playerLeft = px - 3;
+                playerTop = py + 2;
+                playerRight = px + Player.WIDTH - 4;
+                playerBottom = py + Player.HEIGHT - 2;
+            } else {
+                playerLeft = playerTop = playerRight = playerBottom = 0;
+            }
+
+            // 검사는 구간별로 나눠서 할 수 있고(run), 제거는 한 쓰레드에서 항상 같은 순서로 함.
+            EntityWorld.Store bullets = world.store(EntityWorld.TYPE_BULLET);
+            EntityWorld.Store enemyBullets = world.store(EntityWorld.TYPE_ENEMY_BULLET);
+            ensureMarks(bullets.count, enemyBullets.count);
+            run(QUERY_BULLETS, bullets.count);
+            run(QUERY_ENEMY_BULLETS, enemyBullets.count);
+
+            for (int i = 0; i < enemies.count; i++) {
+                if (enemyHit[i] != 0) {
+                    enemyHit[i] = 0;
+                    enemies.flags[i] |= EntityWorld.FLAG_HIT;  // 적이 총알에 맞았음을 표시
+                }
+            }
+            for (int i = 0; i < bullets.count; i++) {
+                if (bulletHit[i] != 0) {  // 적에게 총알이 맞았으면
+                    GameEvents.collision(EntityWorld.TYPE_BULLET, EntityWorld.TYPE_ENEMY, bullets.x[i], bullets.y[i]);
+                    kill(bullets.handle[i]);  // 총알 제거
                 }
             }
-            for (int i=0; i<enemies.size(); i++) {
-                Enemy eee = enemies.get(i);
-                if (eee.getHit()) {  // 적기를 총알에 맞았으면 제거.
-                    BoomEffect boomEffect = new BoomEffect(); // 폭발 효과 생성.
-                    boomEffect.setLocation(eee.getLocation()); // 폭발효과의 위치는 적의 위치.
-                    entities.remove(eee);  // enemy 파괴,제거.
-                    enemies.remove(i);  // 참조를 null로 바꿔서 메모리에서 완전 제거.
-                    boomEffect.setBoomTime(System.currentTimeMillis()); // 폭발이 생긴 시간을 저장.
-                    entities.add(boomEffect);  // 폭발효과 객체를 entities List에 추가.
-//                    eee = null;
+            for (int i = 0; i < enemyBullets.count; i++) {
+                if (enemyBulletHit[i] != 0 && (enemyBullets.flags[i] & EntityWorld.FLAG_DEAD) == 0) {  // player에게 총알이 맞았으면
+                    GameEvents.collision(EntityWorld.TYPE_ENEMY_BULLET, EntityWorld.TYPE_PLAYER, enemyBullets.x[i], enemyBullets.y[i]);
+                    kill(enemyBullets.handle[i]);
+                    player.setHit();
                 }
-                if (System.currentTimeMillis() - eee.getShotTime() > 300) {
-                    eee.setShotTime(System.currentTimeMillis());
-                    EnemyBullet ebullet = new EnemyBullet();
-                    int ex = eee.getLocation().x + ((eee.getSize().width - ebullet.getSize().width) / 2);
-                    int ey = eee.getLocation().y + eee.getSize().height;
-                    ebullet.setLocation(new Point(ex, ey));
+            }
 
-                    entities.add(ebullet);
+            for (int i = 0; i < enemies.count; i++) {
+                if ((enemies.flags[i] & (EntityWorld.FLAG_HIT | EntityWorld.FLAG_DEAD)) == EntityWorld.FLAG_HIT) {  // 적기를 총알에 맞았으면 제거.
+                    kill(enemies.handle[i]);  // enemy 파괴,제거.
+                    spawnBoom(enemies.x[i], enemies.y[i]); // 폭발효과의 위치는 적의 위치. 다른 저장소에 추가되므로 순회에 영향 없음.
                 }
             }
 
-            if (player.getHit()) {  // 플레이어를 총알에 맞았으면 제거.
+            if (playerHandle != -1 && world.hasFlag(playerHandle, EntityWorld.FLAG_HIT)) {  // 플레이어를 총알에 맞았으면 제거.
                 player.setHit();
                 player.setLife(-1);
-                BoomEffect boomEffect = new BoomEffect(); // 폭발 효과 생성.
-                boomEffect.setLocation(player.getLocation()); // 폭발효과의 위치는 적의 위치.
-                boomEffect.setBoomTime(System.currentTimeMillis()); // 폭발이 생긴 시간을 저장.
-                entities.add(boomEffect);  // 폭발효과 객체를 entities List에 추가.
+                spawnBoom(world.getX(playerHandle), world.getY(playerHandle)); // 폭발효과의 위치는 플레이어의 위치.
                 if (player.getLife() == 0) {
-                    entities.remove(player);  // player 파괴,제거.
+                    kill(playerHandle);  // player 파괴,제거.
+                    player.bind(null, -1);  // commit 뒤에 칸이 재사용되어도 player view가 다른 객체를 가리키지 않도록 연결을 끊음
+                    playerHandle = -1;
+                    GameEvents.gameOver(tick + 1);  // 이번 update가 publish할 tick 번호
+                }
+            }
+        }
+
+        void firingSystem(int keys, long now) {  // 쿨타임이 지난 enemy와 SPACE가 눌린 player의 발사
+            EntityWorld.Store enemies = world.store(EntityWorld.TYPE_ENEMY);
+            for (int k = 0; k < timers.getDueCount(); k++) {  // 발사 쿨타임이 지난 enemy만 꺼내짐
+                int id = timers.getDue(k);
+                if (id == SPAWN_TIMER || !timers.isDue(id) || world.getType(id - 1) != EntityWorld.TYPE_ENEMY) {
+                    continue;
                 }
+                int i = world.indexOf(id - 1);
+                enemies.time[i] = now;
+                timers.schedule(id, now + fireCooltime + 1);
+                spawn(EntityWorld.TYPE_ENEMY_BULLET, muzzleX(id - 1), muzzleY(id - 1), EnemyBullet.WIDTH, EnemyBullet.HEIGHT);  // 다른 저장소에 추가되므로 순회에 영향 없음.
             }
 
-            if (player != null && keys.contains(Direction.SPACE)) {  // 입력받은 명력이 SPACE라면 bullet생성
-                if (lastShot == null || System.currentTimeMillis() - lastShot > 150) { // 발사 쿨타임보다 쏜지 오래됬거나 쏜적이 없으면
-                    lastShot = System.currentTimeMillis(); // 마지막으로 쏜시간을 lastShot에 저장.
-                    Bullet bullet = new Bullet(); // 발사 Bullet 생성.
-                    int x = p.x + ((player.getSize().width - bullet.getSize().width) / 2);  // bullet 이미지가 player의 너비 중간에 보이도록 x좌표 설정.
-                    int y = p.y - bullet.getSize().height; // bullet 이미지가 플레이어 바로 바깥에서 생성되도록 y좌표 설정.
-                    bullet.setLocation(new Point(x, y)); // bullet의 위치 설정.
+            if (playerHandle != -1 && (keys & InputState.SPACE) != 0) {  // 입력받은 명력이 SPACE라면 bullet생성
+                if (now - lastShot > 150) { // 발사 쿨타임보다 쏜지 오래됬거나 쏜적이 없으면
+                    lastShot = now; // 마지막으로 쏜시간을 lastShot에 저장.
+                    int x = world.getX(playerHandle) + ((Player.WIDTH - Bullet.WIDTH) / 2);  // bullet 이미지가 player의 너비 중간에 보이도록 x좌표 설정.
+                    int y = world.getY(playerHandle) - Bullet.HEIGHT; // bullet 이미지가 플레이어 바로 바깥에서 생성되도록 y좌표 설정.
+                    spawn(EntityWorld.TYPE_BULLET, x, y, Bullet.WIDTH, Bullet.HEIGHT); // 발사 Bullet 생성.
+                }
+            }
+        }
+
+        int muzzleX(int enemy) {  // enemy가 쏘는 총알이 생기는 x좌표, 총알이 enemy 너비 중간에 보이도록. Scenario의 패턴 발사도 같은 위치를 씀.
+            return world.getX(enemy) + ((world.getWidth(enemy) - EnemyBullet.WIDTH) / 2);
+        }
+
+        int muzzleY(int enemy) {  // enemy 바로 아래
+            return world.getY(enemy) + world.getHeight(enemy);
+        }
 
-                    entities.add(bullet); // entities에 생성된 bullet을 추가.
+        private void publish() {  /* 살아있는 칸들의 타입, 위치, 크기를 back 버퍼에 복사하고 한번에 내보냄. 칸 순서대로 담으므로 그리는 순서는 getEntities와 같음. */
+            RenderSnapshot snapshot = snapshots.back();
+            snapshot.begin(++tick, player == null ? -1 : player.getLife(), scroll, world.getLiveCount());
+            for (int h = 0; h < world.getSlotCount(); h++) {
+                if (world.isAlive(h)) {
+                    snapshot.add(world.getType(h), world.getX(h), world.getY(h), world.getWidth(h), world.getHeight(h));
                 }
             }
+            snapshots.publish();
+        }
+
+        private void spawnBoom(int x, int y) {  // 폭발 효과 생성. 생긴 시간과 제거 타이머는 spawn에서 정함.
+            spawn(EntityWorld.TYPE_BOOM, x, y, BoomEffect.WIDTH, BoomEffect.HEIGHT);
         }
 
     }
@@ -310,15 +741,27 @@ public class MyGame {
         private GameModel model;  // GameModel
         private GameView view;  // GameView
 
-        private Timer timer;  // Swing Timer
-
-        private Set<Direction> keys = new HashSet<>(25); // 용량이 25인 명령을 담는 HashSet을 생성
+        private GameLoop loop;  // 시뮬레이션과 그리기 요청을 하는 게임 루프 쓰레드
+        private int ticksPerSecond = (int) Math.round(Integer.getInteger("game.tps", 25)  // 초당 update 횟수, 기존 Timer(40)과 같은 25
+                * Double.parseDouble(System.getProperty("game.speed", "1")));  // -Dgame.speed=2이면 두배 빠르게 진행, 게임 규칙은 같음
+        private int framesPerSecond = Integer.getInteger("game.fps", 60); // 초당 repaint 요청 횟수
+
+        private final InputState input = new InputState(256); // EDT에서 쓰고 게임 루프 쓰레드가 tick마다 비우는 명령 상태
+        private final PerfStats stats = new PerfStats();  // 성능 HUD용 측정값, -Dgame.hud=true이면 처음부터 켜짐
+        private volatile Replay.Recorder recorder;  // 있으면 tick마다 입력을 기록
+        private Replay.Reader replay;      // 있으면 키 입력 대신 기록된 입력으로 update
+        private boolean replayEnded;       // 재생이 끝났음, 이후 tick은 아무것도 하지 않음
+        private Scenario scenario;         // 있으면 tick마다 무리와 패턴탄을 만들고 끝나면 분위수 출력
+        private boolean scenarioEnded;
+        private final PerfStats.History tickHistory = new PerfStats.History();
+        private final PerfStats.History frameHistory = new PerfStats.History();
 
         public DefaultGameController(GameModel gameModel, GameView gameView) { // GameModel과 GameView를 받아 DefaultGameController 생성.
             gameView.setController(this);  // 받아온 GameView에 Controller 세팅.
 
             view = gameView;
             model = gameModel;
+            stats.setEnabled(Boolean.getBoolean("game.hud"));
         }
 
         @Override
@@ -326,36 +769,152 @@ public class MyGame {
             return model.getEntities();
         }
 
+        @Override
+        public RenderSnapshot getSnapshot() {
+            return model.getSnapshot();
+        }
+
+        @Override
+        public PerfStats getStats() {
+            return stats;
+        }
+
         @Override
         public void setDirection(Direction direction, boolean pressed) { // 명령과 입력여부를 받아와 실행.
-            if (pressed) {  // 눌러졌으면 명령 집합 keys에 추가.
-                keys.add(direction);
-            } else { // 안눌러졌으면 명령 제거.
-                keys.remove(direction);
+            input.set(direction, pressed);  // 눌림 비트를 바꾸고 이벤트를 시각과 함께 기록.
+        }
+
+        public void setTickRate(int ticksPerSecond, int framesPerSecond) {  // start 전에 호출해야 적용됨.
+            this.ticksPerSecond = ticksPerSecond;
+            this.framesPerSecond = framesPerSecond;
+        }
+
+        public GameLoop getLoop() {
+            return loop;
+        }
+
+        public void setRecorder(final Replay.Recorder recorder) {  // start 전에 호출. stop이나 프로그램 종료때 파일을 닫음.
+            this.recorder = recorder;
+            Runtime.getRuntime().addShutdownHook(new Thread("replay-close") {
+                @Override
+                public void run() {
+                    closeRecorder();
+                }
+            });
+        }
+
+        public void setScenario(Scenario scenario) {  // start 전에 호출. 모델은 scenario.newModel()로 만든 것이어야 함. 측정이 켜지고 모든 tick과 프레임 시간을 보관.
+            this.scenario = scenario;
+            stats.tick.setHistory(tickHistory);
+            stats.render.setHistory(frameHistory);
+            stats.setEnabled(true);
+        }
+
+        private boolean scenarioTick(Rectangle bounds, int keys) {  // 시나리오의 한 tick. 정해진 tick 수가 끝나면 결과를 출력하고 false.
+            DefaultGameModel m = (DefaultGameModel) model;
+            if (m.getTick() >= scenario.getTicks()) {
+                System.out.println(scenario.report(m, tickHistory, frameHistory));
+                scenarioEnded = true;
+                return false;
+            }
+            synchronized (model) {
+                keys |= scenario.beforeTick(m, bounds);
+                stats.beginTick();
+                model.update(bounds, keys);
+                stats.endTick();
+            }
+            return true;
+        }
+
+        public void setReplay(Replay.Reader replay) {  // start 전에 호출. 모델은 replay.newModel()로 만든 것이어야 함.
+            this.replay = replay;
+        }
+
+        private void closeRecorder() {
+            if (recorder == null) {
+                return;
+            }
+            try {
+                recorder.close();
+            } catch (java.io.IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        private boolean replayTick() {  // 기록된 다음 tick을 update. 기록이 끝나면 결과를 확인하고 false.
+            try {
+                if (replay.next()) {
+                    synchronized (model) {
+                        stats.beginTick();
+                        model.update(replay.getBounds(), replay.getKeys());
+                        stats.endTick();
+                    }
+                    return true;
+                }
+                long actual = ((DefaultGameModel) model).checksum();
+                System.out.printf("replay finished after %d ticks, checksum %016x %s%n", replay.getTicks(), actual,
+                        actual == replay.getChecksum() ? "matches" : "DIFFERS from recorded " + Long.toHexString(replay.getChecksum()));
+            } catch (java.io.IOException ex) {
+                ex.printStackTrace();
+            }
+            replayEnded = true;
+            try {
+                replay.close();
+            } catch (java.io.IOException ex) {
+                ex.printStackTrace();
             }
+            return false;
         }
 
         @Override
         public void start() {
-            if (timer != null && timer.isRunning()) {  // timer가 비어있거나 실행중이면 종료.
-                timer.stop();  // Swing Timer는 반드시 timer.stop()으로 종료시켜야함.
+            if (loop != null && loop.isRunning()) {  // 루프가 실행중이면 종료.
+                loop.stop();
             }
-            timer = new Timer(40, new ActionListener() { // 0.04초마다 Action 수행.
+            loop = new GameLoop("game-loop", ticksPerSecond, framesPerSecond, new Runnable() {
                 @Override
-                public void actionPerformed(ActionEvent e) {  // 프레임의 위치,크기와 명령어 받은 View를 계속 업데이트함.
-//                    if (model.getPlayer() != null && model.getPlayer().getLife() == 0) {
-//                        timer.stop();
-//                    }
-                    model.update(view.getViewBounds(), Collections.unmodifiableSet(keys));  // 프레임의 위치,크기와 명령 집합 keys를 변경불가능 집합으로 전달, GameModel을 update
-                    view.repaint();  // view를 다시그림.
+                public void run() {  // 프레임의 위치,크기와 이번 tick의 명령 비트를 전달, GameModel을 update
+                    if (replay != null) {
+                        if (!replayEnded && !replayTick()) {
+                            loop.stop();  // 재생이 끝나면 마지막 화면에서 멈춤
+                        }
+                        return;
+                    }
+                    Rectangle bounds = view.getViewBounds();
+                    int keys = input.drain(stats.isEnabled() ? stats.input : null);  // tick 사이에 눌렀다 뗀 키도 포함
+                    if (scenario != null) {
+                        if (!scenarioEnded && !scenarioTick(bounds, keys)) {
+                            loop.stop();  // 시나리오가 끝나면 마지막 화면에서 멈춤
+                        }
+                        return;
+                    }
+                    synchronized (model) {  // getEntities()로 모델을 직접 읽는 쪽과 겹치지 않게 함.
+                        stats.beginTick();
+                        model.update(bounds, keys);
+                        stats.endTick();
+                        if (recorder != null) {  // 같은 잠금 안에서 기록해야 EDT나 종료 hook의 close가 update와 record 사이에 끼지 않음
+                            try {
+                                recorder.record(bounds, keys);
+                            } catch (java.io.IOException ex) {
+                                ex.printStackTrace();
+                                recorder = null;
+                            }
+                        }
+                    }
+                }
+            }, new Runnable() {
+                @Override
+                public void run() {
+                    view.repaint();  // view를 다시그림. 실제 그리기는 EDT에서 일어나고 루프는 기다리지 않음.
                 }
             });
-            timer.start();
+            loop.start();
         }
 
         @Override
         public void stop() {
-            timer.stop();
+            loop.stop();
+            closeRecorder();
         }
 
         @Override
@@ -364,60 +923,53 @@ public class MyGame {
         }
     }
 
-    public abstract class AbstractEntity implements Entity { // Entity의 위치를 get하고, set하는 추상 클래스
+    public abstract class AbstractEntity implements Entity, EntityPool.Poolable { // EntityWorld의 한 칸을 읽고 쓰는 view. 위치정보는 world의 배열에 있음.
 
-        private final Point location = new Point(0,0);  // location이 참조하는 객체는 바뀌지 않음.
+        private EntityWorld world;
+        private int handle = -1;
 
-        @Override
-        public Point getLocation() {  // 위치정보를 받아옴.
-            return new Point(location);
+        public void bind(EntityWorld world, int handle) {  // view가 가리킬 칸을 지정.
+            this.world = world;
+            this.handle = handle;
         }
 
         @Override
-        public void setLocation(Point p) { // setLocation은 위치정보 객체를 담는 location의 참조를 바꾸는것이 아닌 참조하고 있는 객체의 내용을 바꿈.
-            location.setLocation(p);   // 위치정보를 결정,세팅.
+        public void onAcquire() {  // 풀에서 꺼낸 직후에는 아직 아무 칸도 가리키지 않음. spawn에서 bind함.
+            handle = -1;
         }
 
-    }
-
-    public class Background extends AbstractEntity {
-
-        public Background(Rectangle bounds, Point point) {
-            setLocation(point);
+        @Override
+        public void onRelease() {  // 반납된 view가 재사용된 칸을 건드리지 못하게 연결을 끊음.
+            world = null;
+            handle = -1;
         }
 
-        public Background(Rectangle bounds) {
-            int x = bounds.x;
-            int y = bounds.y - (getSize().height - bounds.height);
-            setLocation(new Point(x,y));
-        }
+        protected EntityWorld getWorld() { return world; }
 
-        @Override
-        public void paint(Graphics2D g2d) {
-            Point p = getLocation();
-            Dimension size = getSize();
+        protected int getHandle() { return handle; }
 
-            ImageIcon icon = new ImageIcon("images/iceBG.png");
-            Image img = icon.getImage();
-            g2d.drawImage(img,p.x,p.y,size.width,size.height,null);
+        @Override
+        public Point getLocation() {  // 위치정보를 받아옴.
+            return new Point(world.getX(handle), world.getY(handle));
         }
 
         @Override
-        public Dimension getSize() {
-            return new Dimension(400, 1200);
+        public void setLocation(Point p) { // world 배열 안의 위치정보를 바꿈.
+            world.setPosition(handle, p.x, p.y);   // 위치정보를 결정,세팅.
         }
+
     }
 
     public class Player extends AbstractEntity { // 위치 좌표를 변경하고 알아낼수있는 Player 객체
 
-        private boolean hit = false;  // 맞았는지 표시
+        static final int WIDTH = 40;
+        static final int HEIGHT = 17;
+
+        private final SpriteCache.ScaledSprite sprite = SpriteCache.get("images/player.png").scaled(WIDTH, HEIGHT);
         private int life;
 
-        public Player(Rectangle bounds) {  // 초기 player 위치.
+        public Player() {
             this.life = 3;
-            int x = bounds.x + ((bounds.width - getSize().width) / 2);  // x좌표는 프레임 딱 중간
-            int y = bounds.y + (bounds.height - getSize().height);  // y좌표는 프레임 밑바닥.
-            setLocation(new Point(x, y));  // 위치정보 설정.
         }
 
         public void setLife(int num) { this.life += num; }
@@ -425,99 +977,83 @@ public class MyGame {
         public int getLife() { return this.life; }
 
         public void setHit() { // 맞았으면 setHit 호출
-            if (getHit() == false) {
-                this.hit = true;
-            } else {
-                this.hit = false;
-            }
+            getWorld().setFlag(getHandle(), EntityWorld.FLAG_HIT, !getHit());
         }
 
         public boolean getHit() {
-            return this.hit;
+            return getWorld().hasFlag(getHandle(), EntityWorld.FLAG_HIT);
         }  // 맞았는지 판단.
 
         @Override
         public Dimension getSize() {  // size 반환
-            return new Dimension(40, 17);  // Player 캐릭터의 size
+            return new Dimension(WIDTH, HEIGHT);  // Player 캐릭터의 size
         }
 
         @Override
         public void paint(Graphics2D g2d) {
             Point p = getLocation();   // player의 location
-            Dimension size = getSize();  // player의 size
-
-            ImageIcon icon = new ImageIcon("images/player.png");
-            Image img = icon.getImage();
-            g2d.drawImage(img,p.x,p.y,size.width,size.height,null);
+            sprite.draw(g2d, p.x, p.y);  // 미리 크기를 맞춰둔 이미지를 1:1로 그림.
         }
 
     }
 
     public class Enemy extends AbstractEntity {  // Enemy 객체
 
-        private int exDelta;  // x축 속도
-        private int eyDelta;  // y축 속도
-        private boolean hit;  // 맞았는지 표시
-        private long enemyLastShot = 0;
-        boolean getInFrame = false;
+        static final int WIDTH = 40;
+        static final int HEIGHT = 17;
 
-        public Enemy(Rectangle bounds) {
-            Random random = new Random();
-            int x = bounds.x + random.nextInt(bounds.width - getSize().width - 2) + 1;
-            int y = bounds.y - getSize().height;
-            setLocation(new Point(x, y));
-            this.exDelta = 0;                           // 생성시 x축 속도 : 0
-            this.eyDelta = 2;/*(int)(Math.random()*5)*/;      // 생성시 y축 속도 : 범위 0 ~ 4
-            this.hit = false;  // 맞았는지 설정
-        }
+        private final SpriteCache.ScaledSprite sprite = SpriteCache.get("images/enemy_plane.png").scaled(WIDTH, HEIGHT);
 
         public void setHit() {
-            this.hit = true;
+            getWorld().setFlag(getHandle(), EntityWorld.FLAG_HIT, true);
         }  // 맞았으면 setHit 호출
 
         public boolean getHit() {
-            return this.hit;
+            return getWorld().hasFlag(getHandle(), EntityWorld.FLAG_HIT);
         }  // 맞았는지 판단.
 
-        public void setShotTime(long ShotTime) { this.enemyLastShot = ShotTime; }
+        public boolean getInFrame() {  // 화면 안으로 들어왔는지
+            return getWorld().hasFlag(getHandle(), EntityWorld.FLAG_IN_FRAME);
+        }
+
+        public void setShotTime(long ShotTime) { getWorld().setTime(getHandle(), ShotTime); }
 
-        public long getShotTime() { return enemyLastShot; }
+        public long getShotTime() { return getWorld().getTime(getHandle()); }
 
         public void setSpeed(int xDel, int yDel) {  // 속도 설정
-            this.exDelta = xDel;
-            this.eyDelta = yDel;
+            getWorld().setSpeed(getHandle(), xDel, yDel);
         }
 
         public int getSpeedX() {  // x축 속도 반환
-            return this.exDelta;
+            return getWorld().getSpeedX(getHandle());
         }
 
         public int getSpeedY() {  // y축 속도 반환
-            return this.eyDelta;
+            return getWorld().getSpeedY(getHandle());
         }
         @Override
         public void paint(Graphics2D g2d) {
             Point p = getLocation();
-            Dimension size = getSize();
-
-            ImageIcon icon = new ImageIcon("images/enemy_plane.png");
-            Image img = icon.getImage();
-            g2d.drawImage(img,p.x,p.y,size.width,size.height,null);
+            sprite.draw(g2d, p.x, p.y);  // 미리 크기를 맞춰둔 이미지를 1:1로 그림.
         }
 
         @Override
         public Dimension getSize() {
-            return new Dimension(40, 17);
+            return new Dimension(WIDTH, HEIGHT);
         }
     }
 
     public class Bullet extends AbstractEntity { // 위치 좌표를 변경하고 알아낼수있는 Bullet 객체
 
+        static final int WIDTH = 4;
+        static final int HEIGHT = 8;
+
         @Override
-        public void paint(Graphics2D g2d) {
-            Rectangle bullet = new Rectangle(getLocation(), getSize());  // 위치와 사이즈를 설정해서 bullet객체 생성.
-            g2d.setColor(Color.RED);
-            g2d.fill(bullet);
+        public void paint(Graphics2D g2d) {  // 할당 없이 world의 위치로 바로 그림. 색은 바뀔때만 설정하므로 bullet끼리 이어 그리면 한번.
+            if (g2d.getColor() != Color.RED) {
+                g2d.setColor(Color.RED);
+            }
+            g2d.fillRect(getWorld().getX(getHandle()), getWorld().getY(getHandle()), WIDTH, HEIGHT);
 //            ImageIcon icon = new ImageIcon("images/bullet.png");
 //            Image img = icon.getImage();
 //            g2d.drawImage(img,getLocation().x,getLocation().y,getSize().width,getSize().height,null);
@@ -525,54 +1061,173 @@ public class MyGame {
 
         @Override
         public Dimension getSize() { // Bullet의 사이즈
-            return new Dimension(4, 8);
+            return new Dimension(WIDTH, HEIGHT);
         }
 
     }
 
     public class EnemyBullet extends AbstractEntity {  // 적기가 발사하는 총알
 
+        static final int WIDTH = 4;
+        static final int HEIGHT = 8;
+
         @Override
-        public void paint(Graphics2D g2d) {
-            Rectangle bullet = new Rectangle(getLocation(), getSize());  // 위치와 사이즈를 설정해서 bullet객체 생성.
-            g2d.setColor(Color.blue);
-            g2d.fill(bullet);
+        public void paint(Graphics2D g2d) {  // Bullet.paint와 같음
+            if (g2d.getColor() != Color.blue) {
+                g2d.setColor(Color.blue);
+            }
+            g2d.fillRect(getWorld().getX(getHandle()), getWorld().getY(getHandle()), WIDTH, HEIGHT);
         }
 
         @Override
         public Dimension getSize() { // Bullet의 사이즈
-            return new Dimension(4, 8);
+            return new Dimension(WIDTH, HEIGHT);
         }
     }
 
     public class BoomEffect extends AbstractEntity {  // 폭발효과
 
-        private long boomTime = 0; // bullet이 맞아서 터진 시간을 System.currentTimeMillis()로 받아와 저장.
+        static final int WIDTH = 40;
+        static final int HEIGHT = 40;
 
-        public void setBoomTime(long time) {
-            this.boomTime = time;
+        private final SpriteCache.ScaledSprite sprite = SpriteCache.get("images/explosion-153710_640.png").scaled(WIDTH, HEIGHT);
+
+        public void setBoomTime(long time) {  // bullet이 맞아서 터진 시간을 저장.
+            getWorld().setTime(getHandle(), time);
         }
 
         public long getBoomTime() {
-            return boomTime;
+            return getWorld().getTime(getHandle());
         }
 
         @Override
         public void paint(Graphics2D g2d) {
-            ImageIcon icon = new ImageIcon("images/explosion-153710_640.png");
-            Image img = icon.getImage();
-            g2d.drawImage(img,getLocation().x,getLocation().y,getSize().width,getSize().height,null);
+            Point p = getLocation();
+            sprite.draw(g2d, p.x, p.y);
         }
 
         @Override
         public Dimension getSize() {
-            return new Dimension(40,40);
+            return new Dimension(WIDTH, HEIGHT);
+        }
+    }
+
+    public class SnapshotPainter {  /* RenderSnapshot을 타입별 스프라이트와 도형으로 그림. entity view를 거치지 않아 그리는 동안 모델을 읽지 않음. 화면(과 clip) 밖의 객체는 건너뛰고, 남은 것을 층 순서로, 같은 층 안에서는 재질(이미지, 색)별로 묶어서 묶음마다 상태를 한번만 바꾸고 이어서 그림. */
+
+        public static final int LAYER_BACKGROUND = 0;  // 그리는 순서대로의 층. 담긴 순서와 상관없이 위의 층이 아래 층을 덮음.
+        public static final int LAYER_ENEMIES = 1;
+        public static final int LAYER_BULLETS = 2;
+        public static final int LAYER_PLAYER = 3;
+        public static final int LAYER_EFFECTS = 4;
+        public static final int LAYER_HUD = 5;  // 성능 HUD, painter가 아니라 view가 마지막에 그림
+
+        private final ScrollingBackground scrolling = new ScrollingBackground(ScrollingBackground.layer("images/iceBG.png", 1));  // LAYER_BACKGROUND, snapshot의 scroll 위치로 그림
+        private final SpriteCache.ScaledSprite player = SpriteCache.get("images/player.png").scaled(Player.WIDTH, Player.HEIGHT);
+        private final SpriteCache.ScaledSprite enemy = SpriteCache.get("images/enemy_plane.png").scaled(Enemy.WIDTH, Enemy.HEIGHT);
+        private final SpriteCache.ScaledSprite boom = SpriteCache.get("images/explosion-153710_640.png").scaled(BoomEffect.WIDTH, BoomEffect.HEIGHT);
+
+        private final int[] batchTypes = {  // 묶음을 그리는 순서. 층 순서이고 같은 층 안에서는 재질 순서. 묶음 하나가 타입 하나이고 타입마다 재질이 하나. LAYER_BACKGROUND는 scrolling이 먼저 그림.
+                EntityWorld.TYPE_ENEMY,         // LAYER_ENEMIES
+                EntityWorld.TYPE_BULLET,        // LAYER_BULLETS, 빨간 사각형
+                EntityWorld.TYPE_ENEMY_BULLET,  // LAYER_BULLETS, 파란 사각형
+                EntityWorld.TYPE_PLAYER,        // LAYER_PLAYER
+                EntityWorld.TYPE_BOOM };        // LAYER_EFFECTS
+        private final int[] layerOfType = new int[EntityWorld.TYPE_COUNT];  // 타입 -> 층
+        private final int[] batchStart = new int[EntityWorld.TYPE_COUNT + 1];  // 묶음별 order 안의 시작 위치
+        private final int[] cursor = new int[EntityWorld.TYPE_COUNT];  // 타입 -> 보이는 수, 정렬할때는 order에 다음으로 넣을 위치
+        private int[] order = new int[64];  // 보이는 객체의 snapshot 위치. 처음에는 담긴 순서, 정렬 후에는 묶음 순서.
+        private int[] visible = new int[64];
+        private final Rectangle clip = new Rectangle();  // getClipBounds가 새 객체를 만들지 않도록 재사용
+        private int batches;  // 마지막 paint에서 그린 묶음 수 = 상태를 바꾼 횟수
+        private int drawn;    // 마지막 paint에서 그린 객체 수
+        private int culled;   // 마지막 paint에서 화면 밖이라 건너뛴 객체 수
+
+        public SnapshotPainter() {
+            layerOfType[EntityWorld.TYPE_ENEMY] = LAYER_ENEMIES;
+            layerOfType[EntityWorld.TYPE_BULLET] = LAYER_BULLETS;
+            layerOfType[EntityWorld.TYPE_ENEMY_BULLET] = LAYER_BULLETS;
+            layerOfType[EntityWorld.TYPE_PLAYER] = LAYER_PLAYER;
+            layerOfType[EntityWorld.TYPE_BOOM] = LAYER_EFFECTS;
+        }
+
+        public int getLayer(int entityType) { return layerOfType[entityType]; }
+
+        public int paint(Graphics2D g2d, RenderSnapshot snapshot, Rectangle view) {  /* 먼저 배경 층을 view(화면)에 맞춰 그리고, view와 clip이 겹치는 영역에 걸친 객체만 그림. 보이는 것을 타입별 개수로 자리를 나눠 한번에 정렬(계수 정렬)하고 묶음 순서대로 그림. 할당 없음. 그리기 호출 수를 반환. */
+            int blits = scrolling.paint(g2d, view, snapshot.getScroll());
+            int left = view.x, top = view.y, right = view.x + view.width, bottom = view.y + view.height;
+            if (g2d.getClip() != null) {
+                g2d.getClipBounds(clip);
+                left = Math.max(left, clip.x);
+                top = Math.max(top, clip.y);
+                right = Math.min(right, clip.x + clip.width);
+                bottom = Math.min(bottom, clip.y + clip.height);
+            }
+
+            int n = snapshot.getCount();
+            if (order.length < n) {
+                order = new int[Math.max(n, order.length * 2)];
+                visible = new int[order.length];
+            }
+            Arrays.fill(cursor, 0);
+            int count = 0;
+            for (int i = 0; i < n; i++) {  // 영역과 겹치는 것만 남김, 경계에 닿기만 하면 보이지 않음
+                int x = snapshot.getX(i), y = snapshot.getY(i);
+                if (x < right && y < bottom && x + snapshot.getWidth(i) > left && y + snapshot.getHeight(i) > top) {
+                    visible[count++] = i;
+                    cursor[snapshot.getType(i)]++;
+                }
+            }
+            drawn = count;
+            culled = n - count;
+            for (int b = 0; b < batchTypes.length; b++) {
+                batchStart[b + 1] = batchStart[b] + cursor[batchTypes[b]];
+                cursor[batchTypes[b]] = batchStart[b];
+            }
+            for (int k = 0; k < count; k++) {
+                int i = visible[k];
+                order[cursor[snapshot.getType(i)]++] = i;
+            }
+
+            batches = blits > 0 ? 1 : 0;  // 배경 띠들은 한 묶음으로 셈
+            for (int b = 0; b < batchTypes.length; b++) {
+                int from = batchStart[b], to = batchStart[b + 1];
+                if (from == to) {
+                    continue;
+                }
+                batches++;
+                int type = batchTypes[b];
+                if (type == EntityWorld.TYPE_BULLET || type == EntityWorld.TYPE_ENEMY_BULLET) {
+                    g2d.setColor(type == EntityWorld.TYPE_BULLET ? Color.RED : Color.blue);  // 묶음마다 한번
+                    for (int k = from; k < to; k++) {
+                        int i = order[k];
+                        g2d.fillRect(snapshot.getX(i), snapshot.getY(i), snapshot.getWidth(i), snapshot.getHeight(i));
+                    }
+                } else {
+                    SpriteCache.ScaledSprite sprite = type == EntityWorld.TYPE_PLAYER ? player : type == EntityWorld.TYPE_ENEMY ? enemy : boom;
+                    for (int k = from; k < to; k++) {
+                        int i = order[k];
+                        sprite.draw(g2d, snapshot.getX(i), snapshot.getY(i));
+                    }
+                }
+            }
+            return blits + count;  // 배경 띠마다, 그린 객체마다 fillRect나 drawImage 한번
         }
+
+        public int getBatches() { return batches; }  // 마지막 paint의 묶음 수, setColor나 그리는 이미지가 바뀐 횟수
+
+        public int getDrawn() { return drawn; }
+
+        public int getCulled() { return culled; }
+
+        public ScrollingBackground getScrollingBackground() { return scrolling; }
     }
 
     public class DefaultGameView extends JPanel implements GameView {
 
         private GameController controller;  // 명령세팅과 게임Entity들의 리스트를 가져오고 게임모델과 View를 지속적으로 업데이트하는 controller
+        private final SnapshotPainter painter = new SnapshotPainter();
+        private final Rectangle viewRect = new Rectangle();  // 그릴때마다 쓰는 화면 크기
+        private PerfHud hud;  // 처음 켤때 만듦
 
         public DefaultGameView() {  // 각각 명령들 등록
             addKeyBinding("left.pressed", KeyEvent.VK_LEFT, true, new DirectionAction(Direction.LEFT, true));
@@ -585,6 +1240,15 @@ public class MyGame {
             addKeyBinding("up.released", KeyEvent.VK_UP, false , new DirectionAction(Direction.UP, false));
             addKeyBinding("down.pressed", KeyEvent.VK_DOWN, true , new DirectionAction(Direction.DOWN, true));
             addKeyBinding("down.released", KeyEvent.VK_DOWN, false , new DirectionAction(Direction.DOWN, false));
+
+            getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "hud.toggle");  // F3으로 성능 HUD를 켜고 끔
+            getActionMap().put("hud.toggle", new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    PerfStats stats = getController().getStats();
+                    stats.setEnabled(!stats.isEnabled());
+                }
+            });
         }
 
         protected void addKeyBinding(String name, int keyEvent, boolean pressed, DirectionAction action) {
@@ -623,19 +1287,32 @@ public class MyGame {
         protected void paintComponent(Graphics g) {  // Graphic을 frame에 표시하기 위한 메소드
             super.paintComponent(g);
             GameController controller = getController();
-            for(Entity entity : controller.getEntities()) {  // controller.getEntities()는 Entity 리스트를 반환함.
-                // i don't trust you ??
-                if (controller.getModel().getPlayer().getLife() == 0) {
-                    controller.stop();
-                    JOptionPane.showMessageDialog(this, "GAME OVER", "", JOptionPane.INFORMATION_MESSAGE);
-                    System.exit(0);
+            RenderSnapshot snapshot = controller.getSnapshot();  // 게임 루프가 마지막으로 내보낸 상태. 락 없이 가져오고 update와 동시에 그려도 됨.
+            if (snapshot.getPlayerLife() == 0) {
+                controller.stop();
+                JOptionPane.showMessageDialog(this, "GAME OVER", "", JOptionPane.INFORMATION_MESSAGE);
+                System.exit(0);
+            }
+            PerfStats stats = controller.getStats();
+            long start = System.nanoTime();
+            Object frameEvent = GameEvents.beginFrame();  // JFR 녹화중일때만 이벤트 객체가 생김
+            Graphics2D g2d = (Graphics2D) g.create();  // i dont know this
+            viewRect.setBounds(0, 0, getWidth(), getHeight());
+            int drawCalls = painter.paint(g2d, snapshot, viewRect);  // snapshot에 담긴 타입별로 도형, 혹은 이미지를 그림. 다시 그려야 하는 영역(clip) 밖은 건너뜀.
+            GameEvents.endFrame(frameEvent, snapshot.getTick(), drawCalls, painter.getCulled());
+            if (stats.isEnabled()) {  // 객체를 다 그린 시간을 기록하고 그 위에 HUD를 그림
+                long now = System.nanoTime();
+                stats.render.record(now - start);
+                stats.setFrameCounts(drawCalls, painter.getBatches(), painter.getCulled());
+                stats.frameRate.mark(now);
+                if (hud == null) {
+                    hud = new PerfHud();
                 }
-                Graphics2D g2d = (Graphics2D) g.create();  // i dont know this
-                entity.paint(g2d);  // Graphics로 해당 Entity(player,enemy,bullet)에 해당하는 도형, 혹은 이미지를 그림
-                g2d.dispose(); /* dispose() 메서드는 그래픽 문맥에서 사용중인 시스템 자원을 해제한다. dispose()를 호출한 후에는
-                                 Graphics g를 사용할 수 없다. getGraphics()를 이용해서 Graphics를 얻었다면 반드시 dispose()로 자원을 해제해주어야 한다.
-                                  https://m.blog.naver.com/PostView.nhn?blogId=seektruthyb&logNo=150114863254&proxyReferer=https%3A%2F%2Fwww.google.co.kr%2F  */
+                hud.paint(g2d, stats, snapshot);
             }
+            g2d.dispose(); /* dispose() 메서드는 그래픽 문맥에서 사용중인 시스템 자원을 해제한다. dispose()를 호출한 후에는
+                             Graphics g를 사용할 수 없다. getGraphics()를 이용해서 Graphics를 얻었다면 반드시 dispose()로 자원을 해제해주어야 한다.
+                              https://m.blog.naver.com/PostView.nhn?blogId=seektruthyb&logNo=150114863254&proxyReferer=https%3A%2F%2Fwww.google.co.kr%2F  */
         }
 
         public class DirectionAction extends AbstractAction {
@@ -653,4 +1330,159 @@ public class MyGame {
             // 받아온 controller에 명령이 입력되었으면 추가(add)하고 아니면 삭제(remove)
         }
     }
+
+    public class ActiveGameView extends Canvas implements GameView {  /* RepaintManager를 거치지 않고 게임 루프 쓰레드에서 BufferStrategy에 직접 그리고 바로 화면에 내보내는(page flip) View. */
+
+        private static final long serialVersionUID = 1L;
+
+        private GameController controller;
+        private BufferStrategy strategy;  // addNotify 이후에 생성
+        private final SnapshotPainter painter = new SnapshotPainter();
+        private final Rectangle viewRect = new Rectangle();  // 그릴때마다 쓰는 화면 크기
+        private PerfHud hud;  // 처음 켤때 만듦
+        private boolean gameOver;
+
+        public ActiveGameView() {
+            setIgnoreRepaint(true);  // 시스템이 요청하는 paint는 무시하고 직접 그림.
+            setFocusable(true);
+            addKeyListener(new KeyAdapter() {  // Canvas는 Swing의 InputMap이 없어서 KeyListener로 받음.
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (e.getKeyCode() == KeyEvent.VK_F3 && controller != null) {  // F3으로 성능 HUD를 켜고 끔
+                        PerfStats stats = controller.getStats();
+                        stats.setEnabled(!stats.isEnabled());
+                    }
+                    setDirection(e.getKeyCode(), true);
+                }
+
+                @Override
+                public void keyReleased(KeyEvent e) {
+                    setDirection(e.getKeyCode(), false);
+                }
+            });
+        }
+
+        private void setDirection(int keyCode, boolean pressed) {  // DefaultGameView의 키 바인딩과 같은 키
+            Direction direction;
+            if (keyCode == KeyEvent.VK_LEFT) {
+                direction = Direction.LEFT;
+            } else if (keyCode == KeyEvent.VK_RIGHT) {
+                direction = Direction.RIGHT;
+            } else if (keyCode == KeyEvent.VK_UP) {
+                direction = Direction.UP;
+            } else if (keyCode == KeyEvent.VK_DOWN) {
+                direction = Direction.DOWN;
+            } else if (keyCode == KeyEvent.VK_SPACE) {
+                direction = Direction.SPACE;
+            } else {
+                return;
+            }
+            if (controller != null) {
+                controller.setDirection(direction, pressed);
+            }
+        }
+
+        @Override
+        public void addNotify() {  // 화면에 붙은 다음에만 BufferStrategy를 만들 수 있음.
+            super.addNotify();
+            createBufferStrategy(2);
+            strategy = getBufferStrategy();
+            requestFocus();
+        }
+
+        @Override
+        public void removeNotify() {
+            synchronized (this) {
+                strategy = null;
+            }
+            super.removeNotify();
+        }
+
+        @Override
+        public void setController(GameController controller) {
+            this.controller = controller;
+        }
+
+        @Override
+        public GameController getController() {
+            return controller;
+        }
+
+        @Override
+        public Rectangle getViewBounds() {
+            return new Rectangle(new Point(0,0), getSize());
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(400, 400);
+        }
+
+        @Override
+        public void repaint() {  // 게임 루프의 그리기 요청. 호출한 쓰레드에서 바로 그리고 화면에 내보냄.
+            render();
+        }
+
+        @Override
+        public void paint(Graphics g) {  // 창이 가려졌다 나타나는 등 시스템이 요청한 경우
+            render();
+        }
+
+        @Override
+        public void update(Graphics g) {  // 배경을 지우고 paint를 부르는 기본 동작을 막음.
+            render();
+        }
+
+        private synchronized void render() {
+            if (strategy == null || controller == null || gameOver) {
+                return;
+            }
+            do {
+                do {  // VRAM 내용이 복구된 경우(contentsRestored) 다시 그림.
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        g.setColor(getBackground());
+                        g.fillRect(0, 0, getWidth(), getHeight());
+                        draw(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();  // 다 그린 버퍼를 화면에 내보냄.
+                Toolkit.getDefaultToolkit().sync();  // X11 등에서 출력이 버퍼에 쌓여 늦게 보이는 것을 막음.
+            } while (strategy.contentsLost());  // 내보내는 도중 버퍼를 잃었으면 처음부터 다시.
+        }
+
+        private void draw(Graphics2D g) {
+            RenderSnapshot snapshot = controller.getSnapshot();  // 락 없이 마지막으로 끝난 update의 상태를 가져옴. render가 synchronized라 읽는 쪽은 한번에 하나.
+            if (snapshot.getPlayerLife() == 0) {
+                gameOver = true;
+                controller.stop();
+                EventQueue.invokeLater(new Runnable() {  // 대화상자는 EDT에서 띄움.
+                    @Override
+                    public void run() {
+                        JOptionPane.showMessageDialog(ActiveGameView.this, "GAME OVER", "", JOptionPane.INFORMATION_MESSAGE);
+                        System.exit(0);
+                    }
+                });
+                return;
+            }
+            PerfStats stats = controller.getStats();
+            long start = System.nanoTime();
+            Object frameEvent = GameEvents.beginFrame();
+            viewRect.setBounds(0, 0, getWidth(), getHeight());
+            int drawCalls = painter.paint(g, snapshot, viewRect);
+            GameEvents.endFrame(frameEvent, snapshot.getTick(), drawCalls, painter.getCulled());
+            if (stats.isEnabled()) {
+                long now = System.nanoTime();
+                stats.render.record(now - start);
+                stats.setFrameCounts(drawCalls, painter.getBatches(), painter.getCulled());
+                stats.frameRate.mark(now);
+                if (hud == null) {
+                    hud = new PerfHud();
+                }
+                hud.paint(g, stats, snapshot);
+            }
+        }
+    }
 }
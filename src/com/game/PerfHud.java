@@ -0,0 +1,184 @@
+package com.game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class PerfHud {  /* PerfStats와 객체 수를 화면 위에 겹쳐 그리는 HUD. 글자는 미리 그려둔 이미지를 붙여 그리고, 숫자는 재사용하는 char 버퍼에 써서 String을 만들지 않음. 내용은 REFRESH_NANOS마다 패널 이미지에 다시 쓰고 프레임마다는 패널 한장만 그림. */
+
+    private static final char FIRST = 32;   // 미리 그려두는 글자 범위 (출력 가능한 ASCII)
+    private static final char LAST = 126;
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    private static final Color PANEL = new Color(16, 16, 16);
+    private static final long REFRESH_NANOS = 250_000_000L;  // 글자를 다시 쓰는 간격, 사람이 읽을 수 있는 정도
+    private static final int COLUMNS = 44;
+    private static final int LINES = 8;
+
+    private final BufferedImage[] glyphs = new BufferedImage[LAST - FIRST + 1];
+    private final int glyphWidth;
+    private final int lineHeight;
+    private final char[] digits = new char[24];  // 숫자를 글자로 바꿀때 쓰는 버퍼
+
+    private final BufferedImage panel;  // 마지막으로 쓴 HUD 내용, 불투명
+    private long refreshed;  // 패널을 마지막으로 다시 쓴 시각 (nanoTime), 0이면 아직 안씀
+    private long gcTime;     // 패널을 다시 쓴 이후 프레임들의 GC 시간 합 (ms)
+    private long gcCount;
+
+    private int x;  // 다음 글자를 그릴 위치
+    private int y;
+
+    public PerfHud() {
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D pg = probe.createGraphics();
+        FontMetrics metrics = pg.getFontMetrics(FONT);
+        pg.dispose();
+        glyphWidth = metrics.charWidth('0');  // 고정폭 글꼴이므로 모든 글자의 폭이 같음
+        lineHeight = metrics.getHeight();
+        for (char ch = FIRST; ch <= LAST; ch++) {
+            BufferedImage glyph = SpriteCache.createCompatibleImage(glyphWidth, lineHeight);
+            Graphics2D g = glyph.createGraphics();
+            g.setFont(FONT);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.drawString(String.valueOf(ch), 0, metrics.getAscent());
+            g.dispose();
+            glyphs[ch - FIRST] = glyph;
+        }
+        panel = new BufferedImage(glyphWidth * COLUMNS + 8, lineHeight * LINES + 6, BufferedImage.TYPE_INT_RGB);  // 불투명 패널은 섞지 않고 복사만 하므로 가장 쌈
+    }
+
+    public void paint(Graphics2D g, PerfStats stats, RenderSnapshot snapshot) {  // 그리는 쓰레드에서 프레임마다 호출
+        stats.sampleGc();
+        gcTime += stats.getGcTimeSinceFrame();
+        gcCount += stats.getGcCountSinceFrame();
+        long now = System.nanoTime();
+        if (refreshed == 0 || now - refreshed >= REFRESH_NANOS) {
+            refreshed = now;
+            Graphics2D pg = panel.createGraphics();
+            pg.setColor(PANEL);
+            pg.fillRect(0, 0, panel.getWidth(), panel.getHeight());
+            write(pg, stats, snapshot);
+            pg.dispose();
+            gcTime = 0;
+            gcCount = 0;
+        }
+        g.drawImage(panel, 4, 4, null);
+    }
+
+    private void write(Graphics2D g, PerfStats stats, RenderSnapshot snapshot) {
+        x = 4;
+        y = 3;
+
+        text(g, "tick   last ");
+        millis(g, stats.tick.getLast());
+        text(g, " mean ");
+        millis(g, stats.tick.getMean());
+        text(g, " p99 ");
+        millis(g, stats.tick.getP99());
+        newLine();
+
+        text(g, "render last ");
+        millis(g, stats.render.getLast());
+        text(g, " mean ");
+        millis(g, stats.render.getMean());
+        text(g, " p99 ");
+        millis(g, stats.render.getP99());
+        newLine();
+
+        text(g, "input  last ");
+        millis(g, stats.input.getLast());
+        text(g, " mean ");
+        millis(g, stats.input.getMean());
+        text(g, " p99 ");
+        millis(g, stats.input.getP99());
+        newLine();
+
+        text(g, "fps ");
+        decimal(g, Math.round(stats.frameRate.perSecond() * 10), 1);
+        text(g, "  tps ");
+        decimal(g, Math.round(stats.tickRate.perSecond() * 10), 1);
+        newLine();
+
+        text(g, "draw ");
+        number(g, stats.getDrawCalls());
+        text(g, " culled ");
+        number(g, stats.getCulled());
+        text(g, " batches ");
+        number(g, stats.getBatches());
+        newLine();
+
+        text(g, "bullet ");
+        number(g, snapshot.getCount(EntityWorld.TYPE_BULLET));
+        text(g, " enemyBullet ");
+        number(g, snapshot.getCount(EntityWorld.TYPE_ENEMY_BULLET));
+        newLine();
+
+        text(g, "enemy ");
+        number(g, snapshot.getCount(EntityWorld.TYPE_ENEMY));
+        text(g, " boom ");
+        number(g, snapshot.getCount(EntityWorld.TYPE_BOOM));
+        newLine();
+
+        text(g, "alloc ");
+        long allocated = stats.getAllocatedPerTick();
+        if (allocated < 0) {
+            text(g, "n/a");
+        } else {
+            number(g, allocated);
+            text(g, " B/tick");
+        }
+        text(g, "  gc ");  // 지난번 패널을 쓴 이후 프레임 사이에 일어난 GC
+        number(g, gcTime);
+        text(g, " ms (");
+        number(g, gcCount);
+        text(g, ")");
+    }
+
+    private void newLine() {
+        x = 4;
+        y += lineHeight;
+    }
+
+    private void text(Graphics2D g, String s) {  // 상수 문자열을 글자 이미지로 그림
+        for (int i = 0; i < s.length(); i++) {
+            glyph(g, s.charAt(i));
+        }
+    }
+
+    private void glyph(Graphics2D g, char ch) {
+        if (ch >= FIRST && ch <= LAST && ch != ' ') {
+            g.drawImage(glyphs[ch - FIRST], x, y, null);
+        }
+        x += glyphWidth;
+    }
+
+    private void millis(Graphics2D g, long nanos) {  // ns를 소수점 둘째자리까지의 ms로 표시
+        decimal(g, (nanos + 5_000) / 10_000, 2);
+    }
+
+    private void number(Graphics2D g, long value) {
+        decimal(g, value, 0);
+    }
+
+    private void decimal(Graphics2D g, long value, int scale) {  // value / 10^scale을 소수점 scale자리까지 표시
+        boolean negative = value < 0;
+        if (negative) {
+            value = -value;
+        }
+        int n = digits.length;
+        int written = 0;
+        do {
+            if (written == scale && scale > 0) {
+                digits[--n] = '.';
+            }
+            digits[--n] = (char) ('0' + value % 10);
+            value /= 10;
+            written++;
+        } while (value > 0 || written <= scale);
+        if (negative) {
+            digits[--n] = '-';
+        }
+        for (int i = n; i < digits.length; i++) {
+            glyph(g, digits[i]);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.game;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+public class PerfStats {  /* tick과 그리기의 시간, 실제 초당 횟수, tick당 할당량, 프레임 사이의 GC 시간. 성능 HUD용이고 켜져 있을때만 측정함. */
+
+    public final Timing tick = new Timing();     // update 한번의 시간
+    public final Timing render = new Timing();   // 객체들을 그리는 시간 (HUD 제외)
+    public final Rate tickRate = new Rate();     // 실제 초당 tick 수
+    public final Rate frameRate = new Rate();    // 실제 초당 그린 프레임 수
+    public final Timing input = new Timing();    // 키 입력이 들어와서 tick에 반영되기까지의 시간
+
+    private volatile boolean enabled;
+    private volatile long allocatedPerTick = -1;  // 마지막 tick의 할당량, 측정할 수 없으면 -1
+    private int drawCalls;  // 마지막 프레임의 그리기 호출 수, 묶음 수, 화면 밖이라 건너뛴 수. 그리는 쓰레드만 사용
+    private int batches;
+    private int culled;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();  // 매번 새 List를 만들지 않도록 한번만 가져옴
+    private long gcTime = -1;   // 지난 프레임까지의 누적 GC 시간 (ms)
+    private long gcCount = -1;
+    private long gcTimeSinceFrame;   // 지난 프레임 이후의 GC 시간 (ms)
+    private long gcCountSinceFrame;  // 지난 프레임 이후의 GC 횟수
+
+    private long tickStart;       // tick 쓰레드만 사용
+    private long tickAllocated;
+    private long allocatedOverhead;  // 할당량을 읽는 호출 자체의 할당량
+
+    public boolean isEnabled() { return enabled; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public void beginTick() {  // tick 쓰레드에서 update 직전에 호출
+        if (!enabled) {
+            return;
+        }
+        long probe = allocatedBytes();
+        tickAllocated = allocatedBytes();
+        allocatedOverhead = tickAllocated - probe;
+        tickStart = System.nanoTime();
+    }
+
+    public void endTick() {  // tick 쓰레드에서 update 직후에 호출. beginTick 이후에 켜졌으면 무시.
+        if (!enabled || tickStart == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        tick.record(now - tickStart);
+        tickRate.mark(now);
+        long allocated = allocatedBytes();
+        allocatedPerTick = allocated < 0 || tickAllocated < 0 ? -1 : Math.max(0, allocated - tickAllocated - allocatedOverhead);
+        tickStart = 0;
+    }
+
+    public long getAllocatedPerTick() { return allocatedPerTick; }
+
+    public void setFrameCounts(int drawCalls, int batches, int culled) {  // 그리는 쓰레드에서 프레임마다 호출
+        this.drawCalls = drawCalls;
+        this.batches = batches;
+        this.culled = culled;
+    }
+
+    public int getDrawCalls() { return drawCalls; }
+
+    public int getBatches() { return batches; }
+
+    public int getCulled() { return culled; }
+
+    private long allocatedBytes() {  // 현재 쓰레드가 지금까지 할당한 바이트 수, HotSpot 계열이 아니면 -1
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    public void sampleGc() {  // 그리는 쓰레드에서 프레임마다 한번 호출. 지난 호출 이후의 GC 시간과 횟수를 계산.
+        long time = 0;
+        long count = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            GarbageCollectorMXBean gc = collectors.get(i);
+            time += Math.max(0, gc.getCollectionTime());
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        gcTimeSinceFrame = gcTime < 0 ? 0 : time - gcTime;
+        gcCountSinceFrame = gcCount < 0 ? 0 : count - gcCount;
+        gcTime = time;
+        gcCount = count;
+    }
+
+    public long getGcTimeSinceFrame() { return gcTimeSinceFrame; }
+
+    public long getGcCountSinceFrame() { return gcCountSinceFrame; }
+
+    public static class Timing {  /* 최근 SIZE개의 시간(ns). 쓰는 쪽 하나, 읽는 쪽은 표시용이라 약간 어긋난 값을 읽어도 됨. */
+
+        private static final int SIZE = 128;
+
+        private final long[] samples = new long[SIZE];
+        private final long[] sorted = new long[SIZE];  // p99 계산용, 읽는 쪽만 사용
+        private int next;
+        private volatile int filled;
+        private volatile long last;
+        private History history;  // 있으면 모든 값을 따로 보관
+
+        public void setHistory(History history) {  // 기록을 시작하기 전에 설정
+            this.history = history;
+        }
+
+        public void record(long nanos) {
+            if (history != null) {
+                history.add(nanos);
+            }
+            samples[next] = nanos;
+            next = (next + 1) % SIZE;
+            last = nanos;
+            if (filled < SIZE) {
+                filled++;
+            }
+        }
+
+        public long getLast() { return last; }
+
+        public long getMean() {
+            int n = filled;
+            if (n == 0) {
+                return 0;
+            }
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += samples[i];
+            }
+            return sum / n;
+        }
+
+        public long getP99() {
+            int n = filled;
+            if (n == 0) {
+                return 0;
+            }
+            System.arraycopy(samples, 0, sorted, 0, n);
+            Arrays.sort(sorted, 0, n);
+            return sorted[Math.min(n - 1, (int) Math.ceil(n * 0.99) - 1)];
+        }
+    }
+
+    public static class History {  /* 실행 전체의 시간(ns)을 모두 보관하고 끝난 뒤에 분위수를 계산. 쓰는 쪽 하나, 읽는 것은 쓰기가 끝난 뒤. */
+
+        private long[] values = new long[1024];
+        private int count;
+
+        public synchronized void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+
+        public synchronized int getCount() { return count; }
+
+        public synchronized long percentile(double p) {  // p는 0 ~ 100, 값이 없으면 0
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, Math.min(count - 1, (int) Math.ceil(count * p / 100) - 1))];
+        }
+
+        public synchronized String summary() {  // "n개, p50 / p90 / p99 / max" (ms)
+            return String.format("%d samples, p50 %.3f  p90 %.3f  p99 %.3f  max %.3f ms", count,
+                    percentile(50) / 1e6, percentile(90) / 1e6, percentile(99) / 1e6, percentile(100) / 1e6);
+        }
+    }
+
+    public static class Rate {  /* 최근 SIZE번의 시각으로 계산한 초당 횟수 */
+
+        private static final int SIZE = 64;
+
+        private final long[] times = new long[SIZE];
+        private volatile int next;
+        private volatile int filled;
+
+        public void mark(long now) {
+            times[next] = now;
+            next = (next + 1) % SIZE;
+            if (filled < SIZE) {
+                filled++;
+            }
+        }
+
+        public double perSecond() {
+            int n = filled;
+            if (n < 2) {
+                return 0;
+            }
+            int newest = (next - 1 + SIZE) % SIZE;
+            int oldest = n < SIZE ? 0 : next;
+            long span = times[newest] - times[oldest];
+            return span <= 0 ? 0 : (n - 1) * 1e9 / span;
+        }
+    }
+}
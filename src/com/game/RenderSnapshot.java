@@ -0,0 +1,104 @@
+package com.game;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RenderSnapshot {  /* 한 tick이 끝난 시점의 그리기용 상태. entity 참조 대신 타입과 위치, 크기만 기본형 배열로 복사해 두어서 그리는 쪽이 update 도중의 상태를 볼 수 없음. */
+
+    private int count;    // 담긴 객체 수
+    private int[] type;
+    private int[] x;
+    private int[] y;
+    private int[] w;
+    private int[] h;
+    private long tick;       // 몇번째 update의 결과인지
+    private int playerLife = -1;  // player의 남은 목숨, player가 아직 없으면 -1
+    private long scroll;     // 배경이 흐른 거리
+    private final int[] counts = new int[EntityWorld.TYPE_COUNT];  // 타입별 객체 수
+
+    public RenderSnapshot(int capacity) {
+        type = new int[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        w = new int[capacity];
+        h = new int[capacity];
+    }
+
+    public void begin(long tick, int playerLife, long scroll, int expected) {  // 새로 채우기 시작. expected는 담을 객체 수, 모자라면 배열을 늘림.
+        this.tick = tick;
+        this.playerLife = playerLife;
+        this.scroll = scroll;
+        count = 0;
+        Arrays.fill(counts, 0);
+        if (type.length < expected) {
+            int capacity = Math.max(expected, type.length * 2);
+            type = Arrays.copyOf(type, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            w = Arrays.copyOf(w, capacity);
+            h = Arrays.copyOf(h, capacity);
+        }
+    }
+
+    public void add(int entityType, int px, int py, int width, int height) {  // begin에서 준 expected를 넘겨서 호출하면 안됨.
+        type[count] = entityType;
+        x[count] = px;
+        y[count] = py;
+        w[count] = width;
+        h[count] = height;
+        count++;
+        counts[entityType]++;
+    }
+
+    public int getCount() { return count; }
+
+    public int getCount(int entityType) { return counts[entityType]; }
+
+    public int getType(int i) { return type[i]; }
+
+    public int getX(int i) { return x[i]; }
+
+    public int getY(int i) { return y[i]; }
+
+    public int getWidth(int i) { return w[i]; }
+
+    public int getHeight(int i) { return h[i]; }
+
+    public long getTick() { return tick; }
+
+    public int getPlayerLife() { return playerLife; }
+
+    public long getScroll() { return scroll; }
+
+    public static class TripleBuffer {  /* 시뮬레이션 쓰레드 하나가 쓰고 그리기 쓰레드 하나가 읽는 3중 버퍼. 다 채운 버퍼를 AtomicInteger 하나의 교환으로 넘기므로 락도 복사도 없음. */
+
+        private static final int INDEX = 3;   // 버퍼 번호 부분
+        private static final int FRESH = 4;   // 가운데 버퍼에 아직 읽지 않은 새 snapshot이 있음
+
+        private final RenderSnapshot[] buffers = new RenderSnapshot[3];
+        private final AtomicInteger middle = new AtomicInteger(1);  // 쓰는 쪽과 읽는 쪽이 주고받는 가운데 버퍼 번호와 FRESH
+        private int back = 0;   // 쓰는 쪽만 사용하는 버퍼 번호
+        private int front = 2;  // 읽는 쪽만 사용하는 버퍼 번호
+
+        public TripleBuffer(int capacity) {
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = new RenderSnapshot(capacity);
+            }
+        }
+
+        public RenderSnapshot back() {  // 쓰는 쪽: 이번에 채울 버퍼. publish 전까지는 읽는 쪽이 볼 수 없음.
+            return buffers[back];
+        }
+
+        public void publish() {  // 쓰는 쪽: 다 채운 버퍼를 가운데와 맞바꿈. 읽히지 않은 이전 snapshot은 다음 back이 되어 덮어씀.
+            back = middle.getAndSet(back | FRESH) & INDEX;
+        }
+
+        public RenderSnapshot latest() {  // 읽는 쪽: 새로 publish된 snapshot이 있으면 가져오고, 없으면 지난번 것을 그대로 반환.
+            if ((middle.get() & FRESH) != 0) {
+                front = middle.getAndSet(front) & INDEX;
+            }
+            return buffers[front];
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class Replay {  /* seed와 tick별 입력 비트를 담은 리플레이 파일. 같은 seed와 tick 시계로 만든 DefaultGameModel에 같은 입력을 넣으면 같은 상태가 나오므로 끝 상태의 checksum으로 재현 여부를 확인. */
+
+    /* 파일 형식 (DataOutputStream, 정수는 varint)
+     *   int MAGIC, byte VERSION, long seed, varint millisPerTick, varint enemyLimit
+     *   기록들: KEYS | 비트, varint 반복 tick 수   -- 같은 입력이 이어지는 구간
+     *           BOUNDS, varint x, y, width, height -- 화면 크기가 바뀜, 이후 tick부터 적용
+     *           END, varint tick 수, long checksum
+     */
+    static final int MAGIC = 0x47535250;  // "GSRP"
+    static final int VERSION = 3;  // 2: 제거를 tick 끝에 모아서 하면서 칸 재사용 순서가 바뀜, 3: 배경이 객체가 아니게 되면서 칸 번호가 바뀜. 이전 버전은 다른 결과가 나오므로 읽지 않음
+    private static final int KEYS = 0x00;
+    private static final int BOUNDS = 0x80;
+    private static final int END = 0x40;
+    private static final int KEY_BITS = 0x3f;
+
+    public static void main(String[] args) throws IOException {  // 리플레이를 화면 없이 최대한 빨리 재생하고 checksum을 비교. 다르면 종료코드 1.
+        System.setProperty("java.awt.headless", "true");
+        if (args.length != 1) {
+            System.err.println("usage: java com.game.Replay FILE");
+            System.exit(2);
+        }
+        try (Reader reader = new Reader(Paths.get(args[0]))) {
+            MyGame.DefaultGameModel model = reader.newModel();
+            long start = System.nanoTime();
+            while (reader.next()) {
+                model.update(reader.getBounds(), reader.getKeys());
+            }
+            long elapsed = System.nanoTime() - start;
+            boolean same = model.checksum() == reader.getChecksum();
+            System.out.printf("%d ticks in %.1f ms, seed %d, checksum %016x %s%n", reader.getTicks(), elapsed / 1e6,
+                    reader.getSeed(), model.checksum(), same ? "matches" : "DIFFERS from recorded " + Long.toHexString(reader.getChecksum()));
+            if (!same) {
+                System.exit(1);
+            }
+        }
+    }
+
+    public static class Recorder implements Closeable {  /* 게임 루프 쓰레드에서 tick마다 record하고 끝날때 close. 모델은 tick 시계를 써야 재현됨. 다른 쓰레드에서 close할 수 있으려면 update와 record를 같은 모델 잠금 안에서 호출해야 함. */
+
+        private final DataOutputStream out;
+        private final MyGame.DefaultGameModel model;
+        private Rectangle bounds;  // 마지막으로 기록한 화면 크기
+        private int runKeys = -1;  // 기록중인 구간의 입력
+        private long runLength;
+        private long ticks;
+        private boolean closed;
+
+        public Recorder(Path file, MyGame.DefaultGameModel model) throws IOException {
+            if (!(model.getClock() instanceof GameClock.TickClock)) {
+                throw new IllegalArgumentException("recording needs a model with a tick clock");
+            }
+            this.model = model;
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(model.getSeed());
+            writeVarint(out, ((GameClock.TickClock) model.getClock()).getMillisPerTick());
+            writeVarint(out, model.getEnemyLimit());
+        }
+
+        public synchronized void record(Rectangle bounds, int keys) throws IOException {  // update에 넘긴 것과 같은 값으로 tick마다 호출
+            if (closed) {
+                return;
+            }
+            if (!bounds.equals(this.bounds)) {
+                flushRun();
+                out.writeByte(BOUNDS);
+                writeVarint(out, bounds.x);
+                writeVarint(out, bounds.y);
+                writeVarint(out, bounds.width);
+                writeVarint(out, bounds.height);
+                this.bounds = new Rectangle(bounds);
+            }
+            if (keys != runKeys) {
+                flushRun();
+                runKeys = keys;
+            }
+            runLength++;
+            ticks++;
+        }
+
+        private void flushRun() throws IOException {
+            if (runLength > 0) {
+                out.writeByte(KEYS | (runKeys & KEY_BITS));
+                writeVarint(out, runLength);
+                runLength = 0;
+            }
+        }
+
+        public long getTicks() { return ticks; }
+
+        @Override
+        public void close() throws IOException {  /* 끝 상태의 checksum을 쓰고 닫음. 모델을 먼저 잠가서 기록한 tick 수와 checksum이 같은 tick의 것이 되게 함. 닫은 뒤에 루프가 더 돌아도 record는 무시됨. */
+            synchronized (model) {  // 루프 쓰레드와 같은 순서(모델, 기록기)로 잠금
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    try {
+                        flushRun();
+                        out.writeByte(END);
+                        writeVarint(out, ticks);
+                        out.writeLong(model.checksum());
+                    } finally {
+                        out.close();
+                    }
+                }
+            }
+        }
+    }
+
+    public static class Reader implements Closeable {  /* 기록을 tick 단위로 읽음. next가 true인 동안 getBounds, getKeys로 update하면 됨. */
+
+        private final DataInputStream in;
+        private final long seed;
+        private final long millisPerTick;
+        private final int enemyLimit;
+        private final Rectangle bounds = new Rectangle();
+        private int keys;
+        private long remaining;  // 지금 구간에 남은 tick 수
+        private long ticks;      // 읽은 tick 수
+        private long recordedTicks = -1;  // END에 적힌 값, 끝까지 읽기 전에는 -1
+        private long checksum;
+
+        public Reader(Path file) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a replay file");
+            }
+            int version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("unsupported replay version " + version);
+            }
+            seed = in.readLong();
+            millisPerTick = readVarint(in);
+            enemyLimit = (int) readVarint(in);
+        }
+
+        public MyGame.DefaultGameModel newModel() {  // 기록할때와 같은 seed, 시계, enemy 수로 만든 모델
+            MyGame.DefaultGameModel model = new MyGame(false).new DefaultGameModel(seed, GameClock.ticks(millisPerTick));
+            model.setEnemyLimit(enemyLimit);
+            return model;
+        }
+
+        public boolean next() throws IOException {  // 다음 tick으로 넘어감. 기록이 끝났으면 false.
+            while (remaining == 0) {
+                if (recordedTicks >= 0) {
+                    return false;
+                }
+                int kind = in.readUnsignedByte();
+                if (kind == BOUNDS) {
+                    bounds.setBounds((int) readVarint(in), (int) readVarint(in), (int) readVarint(in), (int) readVarint(in));
+                } else if (kind == END) {
+                    recordedTicks = readVarint(in);
+                    checksum = in.readLong();
+                    if (recordedTicks != ticks) {
+                        throw new IOException("replay has " + ticks + " ticks but says " + recordedTicks);
+                    }
+                } else {
+                    keys = kind & KEY_BITS;
+                    remaining = readVarint(in);
+                }
+            }
+            remaining--;
+            ticks++;
+            return true;
+        }
+
+        public Rectangle getBounds() { return bounds; }
+
+        public int getKeys() { return keys; }
+
+        public long getSeed() { return seed; }
+
+        public long getMillisPerTick() { return millisPerTick; }
+
+        public long getTicks() { return ticks; }
+
+        public long getChecksum() { return checksum; }  // next가 false를 반환한 뒤에만 의미있음
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {  // 7비트씩, 음수는 zigzag
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7fL) != 0) {
+            out.writeByte((int) ((v & 0x7f) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
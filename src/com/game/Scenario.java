@@ -0,0 +1,266 @@
+package com.game;
+
+import java.awt.Rectangle;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class Scenario {  /* 부하 시나리오. 파일에 적힌 대로 enemy 무리를 정해진 tick에 풀어놓고 방사형/조준 패턴으로 enemyBullet을 쏘게 함. 화면 없이(main) 또는 -Dgame.scenario로 창에서 실행하고 끝나면 tick과 프레임 시간의 분위수를 출력. */
+
+    /* 파일 형식: 한 줄에 설정 하나, '#' 뒤는 주석.
+     *   name 이름               ticks N                 size WxH (화면 없이 실행할때 화면 크기)
+     *   seed N                  tick-millis N           enemy-limit N (기본 enemy 생성 수)
+     *   spawn-cooltime MS       fire-cooltime MS        pool-cap N (풀에 보관할 최대 개수, 기본 제한 없음)
+     *   lives N (player 목숨)   autofire (player가 계속 발사)
+     *   wave 시작tick enemy수 패턴 [bullets N] [speed N] [interval N] [spread 도]
+     *     패턴: radial - 사방으로 bullets개, 쏠때마다 조금씩 회전
+     *           aimed  - player를 향해 spread도 안에 부채꼴로 bullets개
+     *           none   - 기본 발사만
+     *     interval은 tick 단위 발사 간격. 같은 무리의 enemy들은 발사 시점을 고르게 나눠 가짐.
+     */
+
+    private static final int NONE = 0;
+    private static final int RADIAL = 1;
+    private static final int AIMED = 2;
+
+    private String name = "scenario";
+    private long ticks = 1000;
+    private int width = 400;
+    private int height = 400;
+    private long seed = 1;
+    private long tickMillis = MyGame.DefaultGameModel.TICK_MILLIS;
+    private int enemyLimit = 5;
+    private long spawnCooltime = MyGame.DefaultGameModel.SPAWN_COOLTIME;
+    private long fireCooltime = MyGame.DefaultGameModel.FIRE_COOLTIME;
+    private int poolCap = Integer.MAX_VALUE;
+    private int lives = 3;
+    private boolean autoFire;
+    private final List<Wave> waves = new ArrayList<>();
+
+    private Random random;    // 무리의 위치 결정, newModel에서 seed로 만듦
+    private boolean livesSet;
+    private int peakLive;
+
+    private static class Wave {
+        long start;
+        int count;
+        int pattern;
+        int bullets = 8;
+        int speed = 4;
+        int interval = 25;
+        int spread = 60;
+        long[] enemies = new long[0];  // 생성된 enemy의 ref, 제거되면 resolve가 -1
+    }
+
+    public static Scenario load(Path file) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    public static Scenario parse(String text) {
+        Scenario s = new Scenario();
+        int lineNo = 0;
+        for (String line : text.split("\n")) {
+            lineNo++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] t = line.split("\\s+");
+            try {
+                switch (t[0]) {
+                    case "name": s.name = t[1]; break;
+                    case "ticks": s.ticks = Long.parseLong(t[1]); break;
+                    case "size":
+                        String[] wh = t[1].split("x");
+                        s.width = Integer.parseInt(wh[0]);
+                        s.height = Integer.parseInt(wh[1]);
+                        break;
+                    case "seed": s.seed = Long.parseLong(t[1]); break;
+                    case "tick-millis": s.tickMillis = Long.parseLong(t[1]); break;
+                    case "enemy-limit": s.enemyLimit = Integer.parseInt(t[1]); break;
+                    case "spawn-cooltime": s.spawnCooltime = Long.parseLong(t[1]); break;
+                    case "fire-cooltime": s.fireCooltime = Long.parseLong(t[1]); break;
+                    case "pool-cap": s.poolCap = Integer.parseInt(t[1]); break;
+                    case "lives": s.lives = Integer.parseInt(t[1]); break;
+                    case "autofire": s.autoFire = true; break;
+                    case "wave": s.waves.add(parseWave(t)); break;
+                    default: throw new IllegalArgumentException("unknown setting " + t[0]);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("scenario line " + lineNo + ": " + line + " (" + e.getMessage() + ")", e);
+            }
+        }
+        return s;
+    }
+
+    private static Wave parseWave(String[] t) {
+        Wave w = new Wave();
+        w.start = Long.parseLong(t[1]);
+        w.count = Integer.parseInt(t[2]);
+        switch (t[3]) {
+            case "radial": w.pattern = RADIAL; break;
+            case "aimed": w.pattern = AIMED; break;
+            case "none": w.pattern = NONE; break;
+            default: throw new IllegalArgumentException("unknown pattern " + t[3]);
+        }
+        for (int i = 4; i + 1 < t.length; i += 2) {
+            int value = Integer.parseInt(t[i + 1]);
+            switch (t[i]) {
+                case "bullets": w.bullets = value; break;
+                case "speed": w.speed = value; break;
+                case "interval": w.interval = Math.max(1, value); break;
+                case "spread": w.spread = value; break;
+                default: throw new IllegalArgumentException("unknown wave option " + t[i]);
+            }
+        }
+        return w;
+    }
+
+    public MyGame.DefaultGameModel newModel() {  // seed, 시계, 제한값을 시나리오대로 맞춘 모델
+        MyGame.DefaultGameModel model = new MyGame(false).new DefaultGameModel(seed, GameClock.ticks(tickMillis));
+        model.setEnemyLimit(enemyLimit);
+        model.setCooltimes(spawnCooltime, fireCooltime);
+        for (EntityPool<?> pool : model.getPools()) {
+            pool.setCap(poolCap);
+        }
+        random = new Random(seed);
+        return model;
+    }
+
+    public Rectangle getBounds() { return new Rectangle(0, 0, width, height); }
+
+    public long getTicks() { return ticks; }
+
+    public String getName() { return name; }
+
+    public int beforeTick(MyGame.DefaultGameModel model, Rectangle bounds) {  /* update 직전에 호출. 이번 tick에 시작하는 무리를 만들고 발사할 차례인 enemy가 패턴을 쏨. player 입력에 더할 키를 반환. */
+        long tick = model.getTick();
+        EntityWorld world = model.getWorld();
+        if (!livesSet && model.getPlayer() != null) {
+            model.getPlayer().setLife(lives - model.getPlayer().getLife());
+            livesSet = true;
+        }
+        for (Wave w : waves) {
+            if (w.start == tick) {
+                w.enemies = new long[w.count];
+                for (int i = 0; i < w.count; i++) {  // 화면 위쪽 절반 임의의 위치
+                    w.enemies[i] = world.ref(model.spawnAt(EntityWorld.TYPE_ENEMY, bounds.x + random.nextInt(Math.max(1, bounds.width - 40)),
+                            bounds.y + random.nextInt(Math.max(1, bounds.height / 2))));
+                }
+            }
+            if (w.pattern == NONE || tick < w.start) {
+                continue;
+            }
+            for (int i = (int) ((w.interval - (tick - w.start) % w.interval) % w.interval); i < w.enemies.length; i += w.interval) {
+                int h = world.resolve(w.enemies[i]);  // 발사 시점이 i % interval인 enemy만
+                if (h == -1) {
+                    continue;  // 죽었거나 칸이 다른 객체로 재사용됨
+                }
+                fire(model, w, model.muzzleX(h), model.muzzleY(h), tick);  // firingSystem과 같은 발사 위치
+            }
+        }
+        int live = world.getLiveCount();
+        if (live > peakLive) {
+            peakLive = live;
+        }
+        return autoFire ? InputState.SPACE : 0;
+    }
+
+    private void fire(MyGame.DefaultGameModel model, Wave w, int x, int y, long tick) {
+        EntityWorld world = model.getWorld();
+        double base;
+        double step;
+        if (w.pattern == RADIAL) {
+            base = Math.toRadians(tick * 7 % 360);  // 쏠때마다 돌아가며 나선 모양
+            step = 2 * Math.PI / w.bullets;
+        } else {
+            MyGame.Player player = model.getPlayer();
+            double aim = Math.PI / 2;  // player가 없으면 아래로
+            int ph = player == null ? -1 : player.getHandle();  // 파괴된 player는 칸 연결이 끊겨 -1
+            if (ph != -1) {
+                aim = Math.atan2(world.getY(ph) - y, world.getX(ph) - x);
+            }
+            double spread = Math.toRadians(w.spread);
+            step = w.bullets > 1 ? spread / (w.bullets - 1) : 0;
+            base = aim - (w.bullets > 1 ? spread / 2 : 0);
+        }
+        for (int k = 0; k < w.bullets; k++) {
+            double angle = base + step * k;
+            int dx = (int) Math.round(Math.cos(angle) * w.speed);
+            int dy = (int) Math.round(Math.sin(angle) * w.speed);
+            if (dx == 0 && dy == 0) {
+                dy = 1;
+            }
+            world.setSpeed(model.spawnAt(EntityWorld.TYPE_ENEMY_BULLET, x, y), dx, dy);
+        }
+    }
+
+    public String report(MyGame.DefaultGameModel model, PerfStats.History tickTimes, PerfStats.History frameTimes) {
+        EntityWorld world = model.getWorld();
+        return String.format("scenario %s: %d ticks, peak live %d, final enemy %d, bullet %d, enemy bullet %d, player life %d%n"
+                        + "tick   %s%n"
+                        + "frame  %s",
+                name, model.getTick(), peakLive, world.getCount(EntityWorld.TYPE_ENEMY), world.getCount(EntityWorld.TYPE_BULLET),
+                world.getCount(EntityWorld.TYPE_ENEMY_BULLET), model.getPlayer() == null ? 0 : model.getPlayer().getLife(),
+                tickTimes.summary(), frameTimes.summary());
+    }
+
+    public static void main(String[] args) throws IOException {  /* 화면 없이 실행. 기본은 tick마다 snapshot을 화면 크기의 이미지에 그려서 프레임 시간도 잼. --frame-every N, --no-render */
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 1) {
+            System.err.println("usage: java com.game.Scenario FILE [--frame-every N] [--no-render]");
+            System.exit(2);
+        }
+        Scenario scenario = load(Paths.get(args[0]));
+        int frameEvery = 1;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--no-render")) {
+                frameEvery = 0;
+            } else if (args[i].equals("--frame-every")) {
+                frameEvery = Integer.parseInt(args[++i]);
+            } else {
+                throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+
+        MyGame game = new MyGame(false);
+        MyGame.DefaultGameModel model = scenario.newModel();
+        Rectangle bounds = scenario.getBounds();
+        MyGame.SnapshotPainter painter = frameEvery > 0 ? game.new SnapshotPainter() : null;
+        BufferedImage frame = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_RGB);
+        PerfStats.History tickTimes = new PerfStats.History();
+        PerfStats.History frameTimes = new PerfStats.History();
+        long drawn = 0, culled = 0;  // 프레임들의 합
+        while (model.getTick() < scenario.getTicks()) {
+            int keys = scenario.beforeTick(model, bounds);
+            long start = System.nanoTime();
+            model.update(bounds, keys);
+            tickTimes.add(System.nanoTime() - start);
+            if (painter != null && model.getTick() % frameEvery == 0) {
+                RenderSnapshot snapshot = model.getSnapshot();
+                start = System.nanoTime();
+                Graphics2D g = frame.createGraphics();
+                painter.paint(g, snapshot, bounds);
+                g.dispose();
+                frameTimes.add(System.nanoTime() - start);
+                drawn += painter.getDrawn();
+                culled += painter.getCulled();
+            }
+        }
+        System.out.println(scenario.report(model, tickTimes, frameTimes));
+        if (frameTimes.getCount() > 0) {
+            System.out.printf("per frame: drawn %d, culled %d (mean)%n", drawn / frameTimes.getCount(), culled / frameTimes.getCount());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class ScrollingBackground {  /* 세로로 끝없이 흐르는 배경 층들. 층마다 원본 이미지를 화면 너비에 맞춰 한번만 크기 변환하고 가로 띠(strip)로 잘라 링 버퍼에 담아둠. 그릴때는 화면에 걸친 띠만 1:1로 그리므로 프레임마다 층당 (화면 높이 / 띠 높이 + 2)번 이하이고 원본 이미지 크기와 상관없음. */
+
+    /* 층은 넣은 순서대로 아래에서 위로 그림. 위의 층은 투명한 부분이 있어야 아래 층이 보임.
+     * 층의 위치 = scroll x speed. scroll은 모델이 tick마다 늘리는 값이고 speed가 다른 층은 다른 속도로 흘러서 시차(parallax)가 생김.
+     * scroll이 0이면 층 이미지의 아래 끝이 화면 아래 끝에 맞고, 이후로는 이미지 높이로 나눈 나머지 위치라 위치를 되돌리는 값이 필요 없음.
+     */
+
+    public static final int STRIP_HEIGHT = 64;  // 띠 하나의 높이, 작을수록 화면 밖으로 버리는 픽셀이 적고 그리는 횟수는 늘어남
+
+    private final Layer[] layers;
+    private final int stripHeight;
+    private final Rectangle clip = new Rectangle();  // getClipBounds가 새 객체를 만들지 않도록 재사용
+    private int width;  // 띠를 만든 너비, 화면 너비가 바뀌면 다시 만듦
+    private int blits;  // 마지막 paint에서 그린 띠 수
+
+    public ScrollingBackground(Layer... layers) {
+        this(STRIP_HEIGHT, layers);
+    }
+
+    public ScrollingBackground(int stripHeight, Layer... layers) {
+        this.stripHeight = stripHeight;
+        this.layers = layers.clone();
+    }
+
+    public static Layer layer(String path, double speed) {  // speed는 scroll 1픽셀당 흐르는 픽셀 수. 1보다 작으면 먼 배경.
+        return new Layer(path, speed);
+    }
+
+    public void prepare(int viewWidth) {  // 모든 층의 띠를 viewWidth로 미리 만듦. paint에서 너비가 다르면 그때 다시 만듦.
+        if (viewWidth == width) {
+            return;
+        }
+        for (Layer layer : layers) {
+            layer.build(viewWidth, stripHeight);
+        }
+        width = viewWidth;
+    }
+
+    public int paint(Graphics2D g2d, Rectangle view, long scroll) {  /* view(화면)와 clip이 겹치는 영역에 걸친 띠만 모든 층에 대해 그림. 할당 없음. 그린 띠 수를 반환. */
+        prepare(view.width);
+        int top = view.y, bottom = view.y + view.height;
+        if (g2d.getClip() != null) {
+            g2d.getClipBounds(clip);
+            top = Math.max(top, clip.y);
+            bottom = Math.min(bottom, clip.y + clip.height);
+        }
+        blits = 0;
+        if (top >= bottom) {
+            return 0;
+        }
+        for (Layer layer : layers) {
+            int h = layer.height;
+            if (h == 0) {  // 이미지를 읽지 못한 층
+                continue;
+            }
+            int offset = (int) Math.floorMod(view.y + view.height - h + (long) (scroll * layer.speed), (long) h);  // 층의 0번째 줄이 놓인 화면 y, [0, h)
+            int row = (int) Math.floorMod((long) top - offset, (long) h);  // 화면 top에 보이는 층의 줄
+            int s = row / stripHeight;
+            int y = top - (row - s * stripHeight);
+            while (y < bottom) {  // 링 버퍼를 돌면서 아래로 이어 그림
+                BufferedImage strip = layer.strips[s];
+                g2d.drawImage(strip, view.x, y, null);
+                blits++;
+                y += strip.getHeight();
+                s = s + 1 == layer.strips.length ? 0 : s + 1;
+            }
+        }
+        return blits;
+    }
+
+    public int getBlits() { return blits; }  // 마지막 paint에서 그린 띠 수
+
+    public int getLayerCount() { return layers.length; }
+
+    public int getStripCount() {  // 모든 층이 들고 있는 띠 수
+        int n = 0;
+        for (Layer layer : layers) {
+            n += layer.strips == null ? 0 : layer.strips.length;
+        }
+        return n;
+    }
+
+    public static final class Layer {  // 배경 층 하나. 이미지를 너비에 맞춘 높이만큼의 띠 배열이 링 버퍼이고 끝 다음은 처음.
+
+        private final String path;
+        private final double speed;
+        private BufferedImage[] strips;
+        private int height;  // 띠 높이의 합, 층 이미지 높이
+
+        private Layer(String path, double speed) {
+            this.path = path;
+            this.speed = speed;
+        }
+
+        public String getPath() { return path; }
+
+        public double getSpeed() { return speed; }
+
+        private void build(int width, int stripHeight) {  // 원본을 너비에 맞춰 비율대로 한번 변환하고 띠로 자름. 불투명하면 띠도 불투명하게 만들어 섞지 않고 복사만 하게 함.
+            BufferedImage src = SpriteCache.get(path).getImage();
+            if (src == null || width <= 0) {
+                strips = new BufferedImage[0];
+                height = 0;
+                return;
+            }
+            int h = Math.max(1, (int) Math.round((double) src.getHeight() * width / src.getWidth()));
+            BufferedImage scaled = SpriteCache.scale(src, width, h, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            int transparency = isOpaque(scaled) ? Transparency.OPAQUE : Transparency.TRANSLUCENT;
+            BufferedImage[] out = new BufferedImage[(h + stripHeight - 1) / stripHeight];
+            for (int s = 0; s < out.length; s++) {  // 마지막 띠는 남은 높이만큼
+                int sh = Math.min(stripHeight, h - s * stripHeight);
+                out[s] = SpriteCache.createCompatibleImage(width, sh, transparency);
+                Graphics2D g = out[s].createGraphics();
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(scaled, 0, -s * stripHeight, null);
+                g.dispose();
+            }
+            strips = out;
+            height = h;
+        }
+
+        private static boolean isOpaque(BufferedImage img) {
+            if (img.getTransparency() == Transparency.OPAQUE) {
+                return true;
+            }
+            for (int y = 0; y < img.getHeight(); y++) {
+                for (int x = 0; x < img.getWidth(); x++) {
+                    if ((img.getRGB(x, y) >>> 24) != 0xff) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -2,14 +2,48 @@ package com.game;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class ShootingGame extends JFrame{
+public class ShootingGame extends JFrame{  /* 객체마다 쓰레드를 만들지 않고 쓰레드 하나의 tick에서 모든 객체를 움직임. 화면 변경은 모아서 EDT에서 한번에 반영. */
 //    boolean keyExceuted = false;
     Container c;    // c에 접근하기 용이
     Enemy enemy;   // enemy plane에 접근 용이
-    Thread th;     // thread에 접근 용이
+    Player player;
+
+    static final int TICK_MILLIS = 5;  // 객체들의 주기(20, 25ms)를 나눌 수 있는 tick 간격
+
+    private volatile int width;  // 컨테이너 폭. EDT에서만 getWidth를 부르고 다른 쓰레드는 이 값을 읽음.
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "shooting-tick");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Queue<Actor> added = new ConcurrentLinkedQueue<>();  // EDT에서 추가되어 다음 tick부터 움직일 객체
+    private final List<Actor> actors = new ArrayList<>();  // tick 쓰레드만 사용
+    private final Method startVirtualThread = Boolean.getBoolean("shooting.virtualThreads") ? virtualThreadStarter() : null;  // 객체마다 가상 쓰레드로 돌릴때 사용
+
+    private final Set<Actor> dirty = ConcurrentHashMap.newKeySet();  // 다음 EDT 반영때 위치를 바꾸거나 제거할 객체
+    private final AtomicBoolean flushPending = new AtomicBoolean();  // 반영 작업이 이미 EDT에 올라가 있음
+    private final Runnable flush = this::flush;
+
     public ShootingGame() {
         setTitle("Shooting Game");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -17,40 +51,36 @@ public class ShootingGame extends JFrame{
         c = getContentPane();
 
         enemy = new Enemy(new ImageIcon("images/enemy_plane.png"));  // 이미지를 가진 enemy label 생성
-        Player player = new Player(new ImageIcon("images/player.png"));  // 이미지를 가진 player label 생성
+        player = new Player(new ImageIcon("images/player.png"));  // 이미지를 가진 player label 생성
 
         c.add(player, BorderLayout.SOUTH);         // 각각 컨테이너에 부착
         c.add(enemy, BorderLayout.NORTH);         // JFrame의 기본 배치관리자는 BorderLayout이며 배치위치는 Center가 기본값
+        c.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                width = c.getWidth();
+            }
+        });
         c.addKeyListener(new KeyAdapter() {
             boolean leftControl = true;    // 하나의 입력만을 받기 위한 key
             boolean rightControl = true;   //  하나의 입력만을 받기 위한 key
             @Override
             public void keyPressed(KeyEvent e) {
                 if(e.getKeyCode() == KeyEvent.VK_LEFT && leftControl && rightControl /*&& !keyExceuted*/) { // 한쪽으로 움직이고 있으면
-                    leftControl = false;                                                  // 실행x, 스레드 생성x
-                    player.pSpeed = -5;
-                    th = new Thread(player);
-                    th.start();
-//                    keyExceuted = th.isAlive();
+                    leftControl = false;                                                  // 실행x
+                    player.move(-5);
                 } else if(e.getKeyCode() == KeyEvent.VK_RIGHT && rightControl && leftControl /*&& !keyExceuted*/) { // 한쪽으로 움직이면
                     rightControl = false;                                                         // 일단 이동이 멈춰야
-                    player.pSpeed = 5;                                                              // 실행.
-                    th = new Thread(player);
-                    th.start();
-//                    keyExceuted = th.isAlive();
+                    player.move(5);                                                                 // 실행.
                 }
                 if(e.getKeyCode() == KeyEvent.VK_SPACE) {             // space를 눌러 총알 발사.
-                    Bullet bul = new Bullet(new ImageIcon("images/bullet.png"));  // 총알 객체 생성
-                    bul.setSize(16,16);                                       // 사이즈 결정
-                    bul.setLocation(player.getX()+c.getWidth()/2-10,player.getY());     // 위치 결정, 위치는 플레이어
-                    c.add(bul);                 // 컨테이너에 부착
-                    c.repaint();                // 새로 부착된 불렛을 표시함.
+                    fire();
                 }
             }
             @Override
             public void keyReleased(KeyEvent e) {  // key를 떼면 실행
                 if (e.getKeyCode() == KeyEvent.VK_LEFT || e.getKeyCode() == KeyEvent.VK_RIGHT) { // 뗀 키가 <LEFT>나
-                    th.interrupt();       // player move thread 종료시킴                               <RIGHT>면 실행
+                    player.move(0);       // player 이동 멈춤                                           <RIGHT>면 실행
 //                    keyExceuted = false;
                     leftControl = true;   // move input을 받을 수 있는 상태로 전환
                     rightControl = true;  // move input을 받을 수 있는 상태로 전환
@@ -59,101 +89,244 @@ public class ShootingGame extends JFrame{
         });
         setVisible(true);
         c.requestFocus();
+
+        width = c.getWidth();
+        enemy.place();
+        player.place();
+        start(enemy);
+        start(player);
+        scheduler.scheduleAtFixedRate(this::tick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        int autoFire = Integer.getInteger("shooting.autoFire", 0);  // SPACE를 누르고 있는 것처럼 N ms마다 발사 (부하 측정용)
+        if (autoFire > 0) {
+            scheduler.scheduleAtFixedRate(() -> EventQueue.invokeLater(this::fire), autoFire, autoFire, TimeUnit.MILLISECONDS);
+        }
+        if (Boolean.getBoolean("shooting.stats")) {  // 1초마다 쓰레드 수와 CPU 사용률 출력
+            scheduler.scheduleAtFixedRate(new Stats(), 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    private void fire() {  // 총알 생성, EDT에서 호출
+        Bullet bul = new Bullet(new ImageIcon("images/bullet.png"));  // 총알 객체 생성
+        bul.setSize(16,16);                                       // 사이즈 결정
+        bul.setLocation(player.getX()+c.getWidth()/2-10,player.getY());     // 위치 결정, 위치는 플레이어
+        c.add(bul);                 // 컨테이너에 부착
+        c.repaint();                // 새로 부착된 불렛을 표시함.
+        bul.place();
+        start(bul);
+    }
+
+    private void start(Actor actor) {  // 움직이기 시작. 기본은 tick 쓰레드, -Dshooting.virtualThreads=true이면 객체마다 가상 쓰레드.
+        if (startVirtualThread == null) {
+            added.add(actor);
+            return;
+        }
+        try {
+            startVirtualThread.invoke(null, (Runnable) () -> {
+                try {
+                    while (actor.step()) {  // 객체 하나의 동작을 순서대로 적은 스크립트처럼 실행
+                        Thread.sleep(actor.period);
+                    }
+                    actor.remove();
+                } catch (InterruptedException e) {
+                    actor.remove();
+                }
+            });
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Method virtualThreadStarter() {  // Java 21 이상의 Thread.startVirtualThread. 없으면 tick 쓰레드를 사용.
+        try {
+            return Thread.class.getMethod("startVirtualThread", Runnable.class);
+        } catch (NoSuchMethodException e) {
+            System.err.println("virtual threads are not available on Java " + System.getProperty("java.version") + ", using the tick thread");
+            return null;
+        }
+    }
+
+    private void tick() {  // TICK_MILLIS마다 tick 쓰레드에서 실행. 주기가 된 객체만 움직임.
+        long now = System.nanoTime();
+        for (Actor actor; (actor = added.poll()) != null; ) {
+            actor.due = now;
+            actors.add(actor);
+        }
+        for (int i = actors.size() - 1; i >= 0; i--) {
+            Actor actor = actors.get(i);
+            if (now - actor.due < 0) {
+                continue;
+            }
+            actor.due += TimeUnit.MILLISECONDS.toNanos(actor.period);
+            if (!actor.step()) {
+                actors.set(i, actors.get(actors.size() - 1));  // 순서는 상관없으므로 마지막 객체로 채움.
+                actors.remove(actors.size() - 1);
+                actor.remove();
+            }
+        }
+    }
+
+    private void flush() {  // EDT에서 바뀐 객체들의 위치와 제거를 한번에 반영하고 한번만 다시 그림.
+        flushPending.set(false);
+        for (Iterator<Actor> it = dirty.iterator(); it.hasNext(); ) {
+            Actor actor = it.next();
+            it.remove();
+            if (actor.removed) {
+                c.remove(actor);
+            } else {
+                actor.setLocation(actor.x, actor.y);
+            }
+        }
+        c.repaint();
+    }
+
+    abstract class Actor extends JLabel {  /* tick 쓰레드(또는 가상 쓰레드)에서 움직이는 label. 위치는 필드에만 쓰고 Swing에는 flush에서 반영. */
+        private static final long serialVersionUID = 1L;
+        final int period;     // 움직이는 주기 (ms)
+        volatile int x;
+        volatile int y;
+        volatile boolean removed;
+        long due;             // 다음에 움직일 시간 (nanoTime), tick 쓰레드만 사용
+
+        Actor(ImageIcon icon, int period) {
+            super(icon);
+            this.period = period;
+        }
+
+        void place() {  // 현재 화면상의 위치에서 시작. EDT에서 호출.
+            x = getX();
+            y = getY();
+        }
+
+        abstract boolean step();  // 한 주기의 동작, false를 반환하면 제거됨.
+
+        void moveTo(int px, int py) {
+            x = px;
+            y = py;
+            changed();
+        }
+
+        void remove() {
+            removed = true;
+            changed();
+        }
+
+        private void changed() {  // 다음 flush에서 반영되도록 등록하고, 반영 작업이 없으면 하나만 올림.
+            dirty.add(this);
+            if (flushPending.compareAndSet(false, true)) {
+                EventQueue.invokeLater(flush);
+            }
+        }
     }
-    class Enemy extends JLabel implements Runnable{
-        int speed;
+
+    class Enemy extends Actor {
+        private static final long serialVersionUID = 1L;
+        volatile int speed;
+        private int homeX;
+        private int homeY;
         public Enemy(ImageIcon enemyplane) {
-            super(enemyplane);
+            super(enemyplane, 20);  // 0.02초마다 움직임.
             this.setSize(64,64);
             this.setVerticalAlignment(TOP);  // 위쪽으로 정렬
             this.setHorizontalAlignment(LEFT);   // 왼쪽으로 정렬
-            Thread th = new Thread(this);   // enemy plane move thread 생성, 실행
-            th.start();
+            speed = -5;  // 5픽셀의 속도로 움직임
         }
 
         @Override
-        public void run() {
-            speed = -5;  // 5픽셀의 속도로 움직임
-            int homeX = this.getX();
-            int homeY = this.getY();
-            while (true) {
-                this.setLocation(homeX + speed, homeY);
-                if (homeX + speed > -60) {   // 프레임 밖으로 나가면 반대쪽으로 들어옴.
-                    speed -= 5;
-                } else {
-                    speed = 0;
-                }
-                homeX = c.getWidth();
-                try {
-                    Thread.sleep(20);  // 0.02초마다 움직임.
-                } catch (InterruptedException e) {
-                    return;
-                }
+        void place() {
+            super.place();
+            homeX = x;
+            homeY = y;
+        }
+
+        @Override
+        boolean step() {
+            moveTo(homeX + speed, homeY);
+            if (homeX + speed > -60) {   // 프레임 밖으로 나가면 반대쪽으로 들어옴.
+                speed -= 5;
+            } else {
+                speed = 0;
             }
+            homeX = width;
+            return true;
         }
     }
-    class Player extends JLabel implements Runnable {
-        int pSpeed;
+    class Player extends Actor {
+        private static final long serialVersionUID = 1L;
+        volatile int pSpeed;  // 0이면 멈춰있음
         public Player(ImageIcon controlPlane) {
-            super(controlPlane);
+            super(controlPlane, 25);  // 0.025초마다 움직임.
             this.setSize(64,64);
             this.setVerticalAlignment(BOTTOM);
             this.setHorizontalAlignment(CENTER);   // 이 정렬을 사용시 setLocation에 사용되는 기준 좌표자체가 움직임. 주의.
         }
+
+        void move(int speed) {  // 키를 누르면 지금 화면상의 위치부터 speed로 움직이고, 0이면 멈춤. EDT에서 호출.
+            if (speed != 0 && pSpeed == 0) {
+                place();
+            }
+            pSpeed = speed;
+        }
+
         @Override
-        public void run() {
-            int pXPosition = this.getX();
-            int pYPosition = this.getY();
-            while (true) {
-                pXPosition += pSpeed;    // pSpeed의 속도로 움직임.
-                this.setLocation(pXPosition, pYPosition);
-                if (pXPosition <= -c.getWidth()/2) {   // frame 밖으로 나가면 반대편으로 들어옴.
-                    pXPosition = c.getWidth()/2;
-                } else if (pXPosition > c.getWidth()/2) {  // frame 밖으로 나가면 반대편으로 들어옴.
-                    pXPosition = -c.getWidth()/2;
-                }
-                try {
-                    Thread.sleep(25); // 0.025초마다 움직임.
-                } catch (InterruptedException e) {
-                    return;
-                }
+        boolean step() {
+            int speed = pSpeed;
+            if (speed == 0) {
+                return true;
+            }
+            int pXPosition = x + speed;    // pSpeed의 속도로 움직임.
+            moveTo(pXPosition, y);
+            if (pXPosition <= -width/2) {   // frame 밖으로 나가면 반대편으로 들어옴.
+                x = width/2;
+            } else if (pXPosition > width/2) {  // frame 밖으로 나가면 반대편으로 들어옴.
+                x = -width/2;
             }
+            return true;
         }
     }
-    class Bullet extends JLabel implements Runnable {
-        Thread bulletthread;
+    class Bullet extends Actor {
+        private static final long serialVersionUID = 1L;
         public Bullet(ImageIcon bullet) {
-            super(bullet);
-            Thread bulletthread = new Thread(this);  // 총알을 움직이는 thread 생성, 실행
-            bulletthread.start();
+            super(bullet, 25);  // 0.025초마다 움직임
         }
         @Override
-        public void run() {
-            int bulXPosition = this.getX();  // bullet객체의 생성위치는 player의 위치.
-            int bulYPosition = this.getY();
-            while(true) {
-                bulYPosition -= 10;  // 위쪽으로 10의 속도로 움직임.
-                this.setLocation(bulXPosition,bulYPosition);
-                if(bulYPosition <= enemy.getY() + 50 && bulYPosition >= enemy.getY()) {
-                    if(bulXPosition <= enemy.getX() + 48 && bulXPosition >= enemy.getX()) { // enemy 격추 판정시
-                        enemy.speed = 200;     // enemy는 원래자리에서 사라진것처럼 보인후 다시 날아옴.
-                        c.remove(this);  // enemy 격추 bullet 제거.
-                        break;                  // bullet move thread 종료.
-                    }
-                }
-                if (bulYPosition < -16) {       // bullet이 frame 위쪽 바깥으로 나가면 thread 종료
-                    c.remove(this);
-                    break;
-                }
-                try {
-                    Thread.sleep(25);   // 0.025초마다 움직임
-                } catch (InterruptedException e) {
-                    return;
+        boolean step() {
+            int bulXPosition = x;  // bullet객체의 생성위치는 player의 위치.
+            int bulYPosition = y - 10;  // 위쪽으로 10의 속도로 움직임.
+            moveTo(bulXPosition,bulYPosition);
+            if(bulYPosition <= enemy.y + 50 && bulYPosition >= enemy.y) {
+                if(bulXPosition <= enemy.x + 48 && bulXPosition >= enemy.x) { // enemy 격추 판정시
+                    enemy.speed = 200;     // enemy는 원래자리에서 사라진것처럼 보인후 다시 날아옴.
+                    return false;           // enemy 격추 bullet 제거.
                 }
             }
+            return bulYPosition >= -16;     // bullet이 frame 위쪽 바깥으로 나가면 제거
+        }
+    }
+
+    private static class Stats implements Runnable {  /* 쓰레드 수와 프로세스 CPU 사용률. 계속 쏘는 상황에서 예전(총알마다 쓰레드)과 비교할때 사용. */
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        private long lastCpu = cpuTime();
+        private long lastWall = System.nanoTime();
+
+        @Override
+        public void run() {
+            long cpu = cpuTime();
+            long wall = System.nanoTime();
+            double load = cpu < 0 ? -1 : 100.0 * (cpu - lastCpu) / (wall - lastWall) / os.getAvailableProcessors();
+            lastCpu = cpu;
+            lastWall = wall;
+            System.out.printf("threads %d (peak %d), cpu %.1f%%%n", threads.getThreadCount(), threads.getPeakThreadCount(), load);
+        }
+
+        private long cpuTime() {  // HotSpot 계열이 아니면 -1
+            return os instanceof com.sun.management.OperatingSystemMXBean
+                    ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime() : -1;
         }
     }
+
     public static void main(String[] args) {
-        new ShootingGame();
+        EventQueue.invokeLater(ShootingGame::new);  // Swing 객체는 EDT에서 생성
     }
 }
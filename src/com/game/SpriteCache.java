@@ -0,0 +1,305 @@
+package com.game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+
+public final class SpriteCache {  /* images/ 아래의 PNG를 한번만 읽어서 화면과 호환되는 이미지로 보관하고, 엔티티들이 같은 Sprite를 공유하게 함. */
+
+    private static final Map<String, Sprite> sprites = new ConcurrentHashMap<>(); // 경로별 Sprite 핸들
+
+    private static final AtomicLong loads = new AtomicLong();  // 파일에서 실제로 읽어들인 횟수
+    private static final AtomicLong hits = new AtomicLong();   // 이미 읽어둔 이미지를 그대로 돌려준 횟수
+    private static final AtomicLong bytesHeld = new AtomicLong();  // 캐시가 들고있는 픽셀 데이터의 바이트 수
+    private static final AtomicLong scaledBuilds = new AtomicLong();  // 크기 변환된 이미지를 만든 횟수
+
+    private static final ExecutorService scaler = Executors.newSingleThreadExecutor(r -> {  // 게임 루프 밖에서 크기 변환을 수행하는 쓰레드
+        Thread th = new Thread(r, "sprite-scaler");
+        th.setDaemon(true);
+        return th;
+    });
+
+    private SpriteCache() {
+    }
+
+    public static Sprite get(String path) {  // path에 해당하는 Sprite 핸들을 반환. 처음 요청될때만 파일을 읽음.
+        Sprite sprite = sprites.get(path);
+        if (sprite == null) {
+            sprite = sprites.computeIfAbsent(path, Sprite::new);
+        }
+        sprite.getImage();  // 아직 읽지 않았거나 evict 되었으면 여기서 읽음.
+        return sprite;
+    }
+
+    public static void evict(String path) {  // 이미지 데이터만 버림. 핸들은 그대로 유효하고 다음 getImage()에서 다시 읽음.
+        Sprite sprite = sprites.get(path);
+        if (sprite != null) {
+            sprite.release();
+        }
+    }
+
+    public static void evictAll() {
+        for (Sprite sprite : sprites.values()) {
+            sprite.release();
+        }
+    }
+
+    public static void reload(String path) {  // 파일이 바뀌었을때 즉시 다시 읽음.
+        evict(path);
+        get(path);
+    }
+
+    public static long getLoadCount() { return loads.get(); }
+
+    public static long getHitCount() { return hits.get(); }
+
+    public static long getBytesHeld() { return bytesHeld.get(); }
+
+    public static long getScaledBuildCount() { return scaledBuilds.get(); }
+
+    public static void awaitScaled() throws InterruptedException {  // 지금까지 요청된 크기 변환이 모두 끝날때까지 기다림. (측정 전에 사용)
+        try {
+            scaler.submit(() -> { }).get();  // 쓰레드가 하나라서 앞에 들어간 작업이 모두 끝나야 실행됨.
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static BufferedImage createCompatibleImage(int width, int height) {  // 투명도를 가진 화면 호환 이미지 생성
+        return createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    static BufferedImage createCompatibleImage(int width, int height, int transparency) {  // OPAQUE이면 섞지 않고 복사만 하는 이미지
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+    }
+
+    static BufferedImage scale(BufferedImage src, int width, int height, Object interpolation) {
+        BufferedImage img = src;
+        int w = src.getWidth();
+        int h = src.getHeight();
+        if (interpolation != RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR) {
+            while (w / 2 >= width && h / 2 >= height) {  // 크게 줄일때는 절반씩 여러번 줄여야 계단현상/뭉개짐이 적음.
+                w /= 2;
+                h /= 2;
+                img = draw(img, w, h, interpolation);
+            }
+        }
+        return draw(img, width, height, interpolation);
+    }
+
+    private static BufferedImage draw(BufferedImage src, int width, int height, Object interpolation) {
+        BufferedImage dst = createCompatibleImage(width, height);
+        Graphics2D g2d = dst.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g2d.drawImage(src, 0, 0, width, height, null);
+        g2d.dispose();
+        return dst;
+    }
+
+    static BufferedImage toCompatibleImage(BufferedImage src) {  // 화면 장치와 같은 픽셀 포맷으로 변환해서 drawImage시 변환 비용을 없앰.
+        BufferedImage dst;
+        if (GraphicsEnvironment.isHeadless()) {  // 화면이 없는 환경에서는 premultiplied ARGB로 대체.
+            dst = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        } else {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            if (src.getColorModel().equals(gc.getColorModel())) {
+                return src;
+            }
+            dst = gc.createCompatibleImage(src.getWidth(), src.getHeight(), src.getTransparency());
+        }
+        Graphics2D g2d = dst.createGraphics();
+        g2d.drawImage(src, 0, 0, null);
+        g2d.dispose();
+        return dst;
+    }
+
+    static long sizeOf(BufferedImage img) {  // 래스터 버퍼의 실제 바이트 수
+        DataBuffer buffer = img.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * (DataBuffer.getDataTypeSize(buffer.getDataType()) / 8);
+    }
+
+    public static final class Sprite {  // 엔티티가 들고 있는 공유 핸들
+
+        private final String path;
+        private final Map<ScaleKey, ScaledSprite> variants = new ConcurrentHashMap<>();  // (너비, 높이, 보간방식)별 크기 변환본
+        private volatile BufferedImage image;  // evict되면 null
+        private boolean failed;  // 읽기에 실패했는지 표시
+
+        private Sprite(String path) {
+            this.path = path;
+        }
+
+        public String getPath() { return path; }
+
+        public BufferedImage getImage() {  // 읽어둔 이미지를 반환, 없으면 한번만 읽음.
+            BufferedImage img = image;
+            if (img != null) {
+                hits.incrementAndGet();
+                return img;
+            }
+            synchronized (this) {
+                if (image == null && !failed) {
+                    try {
+                        BufferedImage src = ImageIO.read(new File(path));
+                        if (src == null) {
+                            throw new IOException("unsupported image format: " + path);
+                        }
+                        image = toCompatibleImage(src);
+                        loads.incrementAndGet();
+                        bytesHeld.addAndGet(sizeOf(image));
+                    } catch (IOException ex) { // 파일이 없거나 읽을 수 없으면 ImageIcon처럼 아무것도 그리지 않음. reload 전까지 다시 시도하지 않음.
+                        failed = true;
+                        ex.printStackTrace();
+                    }
+                } else if (image != null) {
+                    hits.incrementAndGet();
+                }
+                return image;
+            }
+        }
+
+        public int getWidth() {
+            BufferedImage img = getImage();
+            return img == null ? 0 : img.getWidth();
+        }
+
+        public int getHeight() {
+            BufferedImage img = getImage();
+            return img == null ? 0 : img.getHeight();
+        }
+
+        public ScaledSprite scaled(int width, int height) {  // 기본 보간은 bilinear
+            return scaled(width, height, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+
+        public ScaledSprite scaled(int width, int height, Object interpolation) {  // 해당 크기로 미리 변환된 이미지 핸들을 반환, 아직 없으면 백그라운드에서 생성.
+            ScaledSprite variant = variants.computeIfAbsent(new ScaleKey(width, height, interpolation),
+                    key -> new ScaledSprite(this, key));
+            variant.request();
+            return variant;
+        }
+
+        private synchronized void release() {
+            for (ScaledSprite variant : variants.values()) {
+                variant.release();
+            }
+            failed = false;
+            if (image != null) {
+                bytesHeld.addAndGet(-sizeOf(image));
+                image = null;
+            }
+        }
+    }
+
+    private static final class ScaleKey {  // 크기 변환 캐시의 키
+
+        final int width;
+        final int height;
+        final Object interpolation;
+
+        ScaleKey(int width, int height, Object interpolation) {
+            this.width = width;
+            this.height = height;
+            this.interpolation = interpolation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ScaleKey)) {
+                return false;
+            }
+            ScaleKey k = (ScaleKey) o;
+            return width == k.width && height == k.height && interpolation.equals(k.interpolation);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(width, height, interpolation);
+        }
+    }
+
+    public static final class ScaledSprite {  // 특정 크기로 변환된 이미지 핸들. 그릴때는 1:1로 복사만 함.
+
+        private final Sprite source;
+        private final ScaleKey key;
+        private final AtomicBoolean pending = new AtomicBoolean();  // 백그라운드 생성이 예약되어 있는지
+        private volatile BufferedImage image;
+
+        private ScaledSprite(Sprite source, ScaleKey key) {
+            this.source = source;
+            this.key = key;
+        }
+
+        public int getWidth() { return key.width; }
+
+        public int getHeight() { return key.height; }
+
+        public BufferedImage getImage() {  // 아직 준비되지 않았으면 null
+            return image;
+        }
+
+        public void draw(Graphics2D g2d, int x, int y) {  // 변환본이 준비됐으면 1:1로 그리고, 아니면 원본을 늘려서 그림.
+            BufferedImage img = image;
+            if (img != null) {
+                g2d.drawImage(img, x, y, null);
+            } else {
+                request();
+                g2d.drawImage(source.getImage(), x, y, key.width, key.height, null);
+            }
+        }
+
+        BufferedImage build() {  // 호출한 쓰레드에서 바로 생성. 벤치마크나 미리 준비할때 사용.
+            BufferedImage img = image;
+            if (img == null) {
+                BufferedImage src = source.getImage();
+                if (src == null) {
+                    return null;
+                }
+                img = scale(src, key.width, key.height, key.interpolation);
+                synchronized (this) {
+                    if (image == null) {
+                        image = img;
+                        scaledBuilds.incrementAndGet();
+                        bytesHeld.addAndGet(sizeOf(img));
+                    }
+                }
+            }
+            return image;
+        }
+
+        private void request() {
+            if (image == null && pending.compareAndSet(false, true)) {
+                scaler.execute(() -> {
+                    try {
+                        build();
+                    } finally {
+                        pending.set(false);
+                    }
+                });
+            }
+        }
+
+        private synchronized void release() {
+            if (image != null) {
+                bytesHeld.addAndGet(-sizeOf(image));
+                image = null;
+            }
+        }
+    }
+}
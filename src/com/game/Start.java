@@ -1,7 +1,6 @@
 package com.game;
 
 import javax.swing.*;
-import javax.swing.Timer;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -53,6 +52,7 @@ public class Start {
     public interface MenuModel {
         public Entity[] getEntities();     // entity가 있는 배열을 가져옴
         public void update(Rectangle bounds); // 이미지와 명령 집합을 받아 update
+        public long getScroll();  // 배경이 흐른 거리
     }
 
     public interface MenuView {
@@ -64,14 +64,15 @@ public class Start {
 
     public interface MenuViewController {
         public Entity[] getEntities();
+        public long getScroll();
         public void start();     // 시작함.
+        public void stop();
     }
 
     public class DefaultMenuModel implements MenuModel {  /* 뷰에서 작용하는 객체들 관리 */
 
         private final List<Entity> entities; // Entity를 담는 상수 List 필드
-        private Background background1;
-        private Background background2; // 배경2
+        private long scroll;  // 배경이 흐른 거리, ScrollingBackground가 이 위치로 그림
         private Plane plane;
 
         private Long lastPlane;
@@ -85,19 +86,16 @@ public class Start {
             return entities.toArray(new Entity[0]); // entities 리스트를 배열로 변환
         }
 
+        @Override
+        public long getScroll() {
+            return scroll;
+        }
+
         @Override
         public void update(Rectangle bounds) {
             if (lastPlane == null) {
                 lastPlane = System.currentTimeMillis();
             }
-            if (background1 == null) {  // 배경이 없으면 생성
-                background1 = new Background(bounds);
-                entities.add(background1);
-            }
-            if (background2 == null) {  // 배경이 없으면 생성
-                background2 = new Background(bounds,new Point(0,-2000));
-                entities.add(background2);
-            }
             if (System.currentTimeMillis() - lastPlane > 3000) {
                 lastPlane = System.currentTimeMillis();
                 plane = new Plane(bounds);
@@ -105,21 +103,12 @@ public class Start {
             }
 
             int yPlaneDel = 4;
-            int yDelta = 1;    // y축 움직임
+            int yDelta = 1;    // 배경의 y축 움직임
+            scroll += yDelta;
 
             Iterator<Entity> it = entities.iterator(); // entities List의 요소에 모두 접근하기 위한 Iterator
             while (it.hasNext()) {
                 Entity entity = it.next();
-                if (entity instanceof Background) {
-                    Point location = entity.getLocation();
-                    location.y += yDelta;
-                    if (location.y > bounds.y + bounds.height) {
-                        entity.setLocation(new Point(0,-1996));
-                    } else {
-                        entity.setLocation(location);
-                    }
-                }
-
                 if (entity instanceof Plane) {
                     Point pLocation = entity.getLocation();
                     Dimension pSize = entity.getSize();
@@ -140,7 +129,7 @@ public class Start {
         private MenuModel model;  // GameModel
         private MenuView view;  // GameView
 
-        private Timer timer;  // Swing Timer
+        private GameLoop loop;  // 메뉴 배경을 움직이는 게임 루프 쓰레드
 
         public DefaultMenuViewController(MenuModel menuModel, MenuView menuView) { // GameModel과 GameView를 받아 DefaultGameController 생성.
             menuView.setController(this);  // 받아온 GameView에 Controller 세팅.
@@ -150,22 +139,43 @@ public class Start {
 
         @Override
         public Entity[] getEntities() {
-            return model.getEntities();
+            synchronized (model) {  // 게임 루프 쓰레드가 update하는 도중에 목록을 복사하지 않도록 함.
+                return model.getEntities();
+            }
+        }
+
+        @Override
+        public long getScroll() {
+            synchronized (model) {
+                return model.getScroll();
+            }
         }
 
         @Override
         public void start() {
-            if (timer != null && timer.isRunning()) {  // timer가 비어있거나 실행중이면 종료.
-                timer.stop();  // Swing Timer는 반드시 timer.stop()으로 종료시켜야함.
+            if (loop != null && loop.isRunning()) {  // 루프가 실행중이면 종료.
+                loop.stop();
             }
-            timer = new Timer(40, new ActionListener() {  // 0.04초마다 Action 수행.
+            loop = new GameLoop("menu-loop", Integer.getInteger("game.tps", 25), Integer.getInteger("game.fps", 60), new Runnable() {
+                @Override
+                public void run() {  // 프레임의 위치,크기를 받아 MenuModel을 update
+                    Rectangle bounds = view.getViewBounds();
+                    synchronized (model) {
+                        model.update(bounds);
+                    }
+                }
+            }, new Runnable() {
                 @Override
-                public void actionPerformed(ActionEvent e) {  // 프레임의 위치,크기와 명령어 받은 View를 계속 업데이트함.
-                    model.update(view.getViewBounds());  // 프레임의 위치,크기와 변경 불가능한 명령어를 받아 GameModel을 update
+                public void run() {
                     view.repaint();  // view를 다시그림.
                 }
             });
-            timer.start();
+            loop.start();
+        }
+
+        @Override
+        public void stop() {
+            loop.stop();
         }
     }
 
@@ -185,36 +195,10 @@ public class Start {
 
     }
 
-    public class Background extends AbstractEntity {
-
-        public Background(Rectangle bounds, Point point) {
-            setLocation(point);
-        }
-
-        public Background(Rectangle bounds) {
-            int x = bounds.x;
-            int y = bounds.y - (getSize().height - bounds.height);
-            setLocation(new Point(x,y));
-        }
-
-        @Override
-        public void paint(Graphics2D g2d) {
-            Point p = getLocation();
-            Dimension size = getSize();
-
-            ImageIcon icon = new ImageIcon("images/iceBG.png");
-            Image img = icon.getImage();
-            g2d.drawImage(img,p.x,p.y,size.width,size.height,null);
-        }
-
-        @Override
-        public Dimension getSize() {
-            return new Dimension(400, 1200);
-        }
-    }
-
     public class Plane extends AbstractEntity {
 
+        private final SpriteCache.ScaledSprite sprite = SpriteCache.get("images/player.png").scaled(getSize().width, getSize().height);
+
         public Plane(Rectangle bounds) {
             Random random = new Random();
             int x = bounds.x + random.nextInt(bounds.width - (getSize().width * 2)) + getSize().width;
@@ -225,11 +209,7 @@ public class Start {
         @Override
         public void paint(Graphics2D g2d) {
             Point p = getLocation();
-            Dimension size = getSize();
-
-            ImageIcon icon = new ImageIcon("images/player.png");
-            Image img = icon.getImage();
-            g2d.drawImage(img,p.x,p.y,size.width,size.height,null);
+            sprite.draw(g2d, p.x, p.y);  // 미리 크기를 맞춰둔 이미지를 1:1로 그림.
         }
 
         @Override
@@ -241,6 +221,8 @@ public class Start {
     public class DefaultMenuView extends JPanel implements MenuView {
 
         private MenuViewController controller;
+        private final ScrollingBackground background = new ScrollingBackground(ScrollingBackground.layer("images/iceBG.png", 1));  // 띠로 나눠둔 배경
+        private final Rectangle viewRect = new Rectangle();
 
         public DefaultMenuView() {
             setLayout(null);
@@ -280,6 +262,8 @@ public class Start {
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             MenuViewController controller = getController();
+            viewRect.setBounds(0, 0, getWidth(), getHeight());
+            background.paint((Graphics2D) g, viewRect, controller.getScroll());  // 화면에 걸친 띠만 그림
             for(Entity entity : controller.getEntities()) {
                 Graphics2D g2d = (Graphics2D) g.create();
                 entity.paint(g2d);
@@ -292,6 +276,7 @@ public class Start {
             public void actionPerformed(ActionEvent e) {
                 JButton b = (JButton)e.getSource();
                 if(b.getText().equals("시작")) {
+                    getController().stop();  // 메뉴 루프 종료
                     new MyGame();
                     jf.dispose();
                 } else if(b.getText().equals("종료")) {
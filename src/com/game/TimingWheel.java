@@ -0,0 +1,197 @@
+package com.game;
+
+import java.util.Arrays;
+
+public class TimingWheel {  /* 계층형 타이밍 휠. 번호(id)별로 타이머를 하나씩 걸어두면 advance할때 시각이 된 것만 꺼내줌. tick당 비용은 살아있는 타이머 수가 아니라 이번에 시각이 된 타이머 수에 비례. */
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;  // 단계마다 64칸
+    private static final int LEVELS = 4;         // 64^4 단위 시간까지 휠에 바로 들어감, 그 뒤는 overflow 목록
+    private static final int OVERFLOW = LEVELS * SLOTS;  // 목록 번호 중 overflow
+    private static final int NONE = -1;
+
+    private static final byte IDLE = 0;   // 걸려있지 않음
+    private static final byte WAITING = 1;  // 휠 안에서 기다리는 중
+    private static final byte DUE = 2;    // 시각이 되어 이번 due 목록에 있음
+
+    private final long resolution;  // 단위 시간 하나의 ms, 보통 tick 간격
+    private long current;           // 처리가 끝난 단위 시간
+    private boolean started;
+
+    private final int[] head = new int[OVERFLOW + 1];  // 칸별 목록의 처음과 끝, 비었으면 NONE
+    private final int[] tail = new int[OVERFLOW + 1];
+    private int[] next = new int[0];   // id -> 같은 목록의 다음 id
+    private int[] prev = new int[0];
+    private int[] list = new int[0];   // id -> 들어있는 목록 번호
+    private long[] deadline = new long[0];  // id -> 단위 시간으로 바꾼 시각
+    private byte[] state = new byte[0];
+    private int waiting;  // 휠 안에 있는 타이머 수
+
+    private int[] due = new int[16];  // 마지막 advance 이후 시각이 된 id들, 순서는 시각 순서이고 같으면 건 순서
+    private int dueCount;
+
+    public TimingWheel(long resolution) {
+        this.resolution = resolution;
+        Arrays.fill(head, NONE);
+        Arrays.fill(tail, NONE);
+    }
+
+    public void schedule(int id, long deadlineMillis) {  /* id의 타이머를 deadlineMillis에 울리도록 걸음. 이미 걸려있으면 옮김. 시각이 이미 지났으면 바로 이번 due 목록에 들어감. */
+        if (!started) {
+            throw new IllegalStateException("advance must be called before schedule");
+        }
+        ensureCapacity(id + 1);
+        cancel(id);
+        long unit = (deadlineMillis + resolution - 1) / resolution;  // 올림, 이 단위 시간이 되기 전에는 울리지 않음
+        deadline[id] = unit;
+        if (unit <= current) {
+            addDue(id);
+        } else {
+            insert(id);
+        }
+    }
+
+    public void cancel(int id) {  // 걸려있지 않으면 아무것도 하지 않음. due 목록에 있던 것은 이후 isDue가 false.
+        if (id >= state.length) {
+            return;
+        }
+        if (state[id] == WAITING) {
+            unlink(id);
+            waiting--;
+        }
+        state[id] = IDLE;
+    }
+
+    public boolean isScheduled(int id) {
+        return id < state.length && state[id] != IDLE;
+    }
+
+    public void advance(long nowMillis) {  /* nowMillis까지 시간을 진행하고, 그 사이에 시각이 된 타이머를 due 목록으로 옮김. 지난 due 목록은 비워짐. */
+        dueCount = 0;
+        long target = nowMillis / resolution;
+        if (!started) {
+            started = true;
+            current = target;
+            return;
+        }
+        while (current < target) {
+            if (waiting == 0) {  // 기다리는 타이머가 없으면 칸을 돌 필요가 없음
+                current = target;
+                break;
+            }
+            current++;
+            int level = 0;
+            while (level < LEVELS - 1 && (current & ((1L << (BITS * (level + 1))) - 1)) == 0) {
+                level++;  // 이 단계의 경계를 넘었으면 윗 단계의 칸을 아래로 내림
+            }
+            if (level == LEVELS - 1 && (current & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+                cascade(OVERFLOW);
+            }
+            for (; level > 0; level--) {
+                cascade(level * SLOTS + (int) ((current >>> (BITS * level)) & (SLOTS - 1)));
+            }
+            int slot = (int) (current & (SLOTS - 1));
+            int id = head[slot];  // 0단계 칸의 타이머는 모두 current에 울리므로 목록을 통째로 떼어냄
+            head[slot] = NONE;
+            tail[slot] = NONE;
+            for (; id != NONE; id = next[id]) {
+                waiting--;
+                addDue(id);
+            }
+        }
+    }
+
+    public int getDueCount() { return dueCount; }  // 순회중에 schedule로 늘어날 수 있음
+
+    public int getDue(int k) { return due[k]; }
+
+    public boolean isDue(int id) {  // due 목록의 id가 그 사이에 취소되거나 다시 걸리지 않았는지
+        return state[id] == DUE;
+    }
+
+    public void consume(int id) {  // due 목록에서 처리한 타이머를 내려놓음. 다시 걸려면 schedule. 처리하지 않은 타이머는 다음 advance 이후 다시 꺼내지지 않음. 아직 기다리는 타이머는 그대로 둠.
+        if (state[id] == DUE) {
+            state[id] = IDLE;
+        }
+    }
+
+    public int getWaiting() { return waiting; }
+
+    private void cascade(int from) {  // 칸의 타이머들을 지금 시각 기준으로 다시 넣음
+        int id = head[from];
+        head[from] = NONE;
+        tail[from] = NONE;
+        while (id != NONE) {
+            int n = next[id];
+            if (deadline[id] <= current) {
+                waiting--;
+                addDue(id);
+            } else {
+                link(id, listOf(deadline[id]));
+            }
+            id = n;
+        }
+    }
+
+    private void insert(int id) {
+        state[id] = WAITING;
+        waiting++;
+        link(id, listOf(deadline[id]));
+    }
+
+    private int listOf(long unit) {  // 지금 시각과 위쪽 비트가 처음으로 같아지는 단계에 넣음
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((unit >>> shift) == (current >>> shift)) {
+                return level * SLOTS + (int) ((unit >>> (BITS * level)) & (SLOTS - 1));
+            }
+        }
+        return OVERFLOW;
+    }
+
+    private void link(int id, int l) {  // 목록 끝에 붙임, 같은 시각이면 건 순서대로 울림
+        list[id] = l;
+        next[id] = NONE;
+        prev[id] = tail[l];
+        if (tail[l] == NONE) {
+            head[l] = id;
+        } else {
+            next[tail[l]] = id;
+        }
+        tail[l] = id;
+    }
+
+    private void unlink(int id) {
+        int l = list[id];
+        if (prev[id] == NONE) {
+            head[l] = next[id];
+        } else {
+            next[prev[id]] = next[id];
+        }
+        if (next[id] == NONE) {
+            tail[l] = prev[id];
+        } else {
+            prev[next[id]] = prev[id];
+        }
+    }
+
+    private void addDue(int id) {
+        state[id] = DUE;
+        if (dueCount == due.length) {
+            due = Arrays.copyOf(due, dueCount * 2);
+        }
+        due[dueCount++] = id;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= state.length) {
+            return;
+        }
+        int size = Math.max(n, state.length * 2);
+        next = Arrays.copyOf(next, size);
+        prev = Arrays.copyOf(prev, size);
+        list = Arrays.copyOf(list, size);
+        deadline = Arrays.copyOf(deadline, size);
+        state = Arrays.copyOf(state, size);
+    }
+}
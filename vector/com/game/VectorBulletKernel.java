@@ -0,0 +1,88 @@
+package com.game;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+public final class VectorBulletKernel extends BulletKernel {  /* BulletKernel의 SIMD 구현. 레인 수만큼 한번에 처리하고 남은 꼬리는 기준 구현으로 처리하므로 결과가 항상 같음. JDK 16 이상에서 --add-modules jdk.incubator.vector로 빌드, 실행해야 하고 BulletKernel.create("vector")로만 로드함. */
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final VectorSpecies<Byte> BYTES = LANES >= 8 ? VectorSpecies.of(byte.class, VectorShape.forBitSize(LANES * 8)) : null;  // 레인 수가 같은 byte 벡터, 32비트짜리는 없음
+    private static final IntVector ZERO = IntVector.zero(SPECIES);
+
+    @Override
+    public String getName() { return "vector" + SPECIES.vectorBitSize(); }
+
+    @Override
+    public void move(int[] x, int[] y, int[] dx, int[] dy, int from, int to) {
+        int i = from;
+        for (int end = from + SPECIES.loopBound(to - from); i < end; i += LANES) {
+            IntVector.fromArray(SPECIES, x, i).add(IntVector.fromArray(SPECIES, dx, i)).intoArray(x, i);
+            IntVector.fromArray(SPECIES, y, i).add(IntVector.fromArray(SPECIES, dy, i)).intoArray(y, i);
+        }
+        super.move(x, y, dx, dy, i, to);
+    }
+
+    @Override
+    public void markOutside(int[] x, int[] y, int[] w, int[] h, int from, int to,
+                            int left, int top, int right, int bottom, byte[] out) {
+        int i = from;
+        for (int end = from + SPECIES.loopBound(to - from); i < end; i += LANES) {
+            IntVector vx = IntVector.fromArray(SPECIES, x, i);
+            IntVector vy = IntVector.fromArray(SPECIES, y, i);
+            VectorMask<Integer> outside = vy.compare(VectorOperators.GT, bottom)
+                    .or(vy.add(IntVector.fromArray(SPECIES, h, i)).compare(VectorOperators.LT, top))
+                    .or(vx.compare(VectorOperators.GT, right))
+                    .or(vx.add(IntVector.fromArray(SPECIES, w, i)).compare(VectorOperators.LT, left));
+            store(outside, out, i);
+        }
+        super.markOutside(x, y, w, h, i, to, left, top, right, bottom, out);
+    }
+
+    @Override
+    public void markInside(int[] x, int[] y, int from, int to, int left, int top, int right, int bottom, byte[] out) {
+        int i = from;
+        for (int end = from + SPECIES.loopBound(to - from); i < end; i += LANES) {
+            store(inside(IntVector.fromArray(SPECIES, x, i), IntVector.fromArray(SPECIES, y, i), left, top, right, bottom), out, i);
+        }
+        super.markInside(x, y, i, to, left, top, right, bottom, out);
+    }
+
+    @Override
+    public void markInsideAny(int[] x, int[] y, int from, int to, int[] left, int[] top, int[] right, int[] bottom,
+                              int boxes, byte[] out) {
+        int i = from;
+        for (int end = from + SPECIES.loopBound(to - from); i < end; i += LANES) {
+            IntVector vx = IntVector.fromArray(SPECIES, x, i);
+            IntVector vy = IntVector.fromArray(SPECIES, y, i);
+            VectorMask<Integer> hit = SPECIES.maskAll(false);
+            for (int b = 0; b < boxes && !hit.allTrue(); b++) {  // 레인이 모두 맞았으면 나머지 box는 볼 필요 없음
+                hit = hit.or(inside(vx, vy, left[b], top[b], right[b], bottom[b]));
+            }
+            store(hit, out, i);
+        }
+        super.markInsideAny(x, y, i, to, left, top, right, bottom, boxes, out);
+    }
+
+    private static VectorMask<Integer> inside(IntVector vx, IntVector vy, int left, int top, int right, int bottom) {
+        return vx.compare(VectorOperators.GT, left)
+                .and(vx.compare(VectorOperators.LT, right))
+                .and(vy.compare(VectorOperators.GT, top))
+                .and(vy.compare(VectorOperators.LT, bottom));
+    }
+
+    private static void store(VectorMask<Integer> mask, byte[] out, int i) {  // 레인별 결과를 0/1 byte로
+        if (BYTES != null) {
+            ((ByteVector) ZERO.blend(1, mask).convertShape(VectorOperators.I2B, BYTES, 0)).intoArray(out, i);
+            return;
+        }
+        long bits = mask.toLong();
+        for (int k = 0; k < LANES; k++) {
+            out[i + k] = (byte) ((bits >>> k) & 1);
+        }
+    }
+}